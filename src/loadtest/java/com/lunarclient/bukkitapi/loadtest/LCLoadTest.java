@@ -0,0 +1,282 @@
+package com.lunarclient.bukkitapi.loadtest;
+
+import com.lunarclient.bukkitapi.LunarClientAPI;
+import com.lunarclient.bukkitapi.event.LCPlayerRegisterEvent;
+import com.lunarclient.bukkitapi.fragment.LCPacketFragmenter;
+import com.lunarclient.bukkitapi.nethandler.LCPacket;
+import com.lunarclient.bukkitapi.nethandler.client.LCPacketCooldown;
+import com.lunarclient.bukkitapi.nethandler.client.LCPacketServerRule;
+import com.lunarclient.bukkitapi.nethandler.client.LCPacketTitle;
+import com.lunarclient.bukkitapi.nethandler.client.obj.ServerRule;
+import org.bukkit.World;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.player.PlayerRegisterChannelEvent;
+import org.bukkit.plugin.PluginDescriptionFile;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.plugin.java.JavaPluginLoader;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Runs the API against a storm of simulated players joining, registering, changing
+ * worlds and quitting, without a server, and reports how the main thread coped.
+ * <p>
+ * Options are passed as {@code --name value}:
+ * <pre>
+ * --players            Players joining during the run.                        (1000)
+ * --join-rate          Players joining per second.                             (500)
+ * --lunar              Fraction of players running Lunar Client.               (0.8)
+ * --register-delay-min Fewest ticks between joining and registering.           (1)
+ * --register-delay-max Most ticks between joining and registering, above 40
+ *                      the queued packets of the player are dropped.           (30)
+ * --fragments          Fraction of Lunar Client players accepting batches.     (0.5)
+ * --sends              Packets sent to each player as they join.               (8)
+ * --world-changes      World changes of each player while online.              (2)
+ * --session            Ticks each player stays online.                         (1200)
+ * --seed               Seed of the random script.                              (0)
+ * --max-tick-ms        Fail if the 99th percentile tick takes longer, 0 to
+ *                      never fail on time.                                     (0)
+ * </pre>
+ * The run fails if any event handler or task threw, or if the tick budget was exceeded.
+ */
+public final class LCLoadTest {
+
+    private static final long FAIL_REGISTER_TICKS = 2 * 20L;
+    private static final int SAMPLE_INTERVAL = 20;
+
+    private final Map<String, String> options;
+    private final LCSimulatedServer server = new LCSimulatedServer("world", "world_nether", "world_the_end");
+    private final Map<LCPacket, Integer> packetSizes = new IdentityHashMap<>();
+    private final AtomicLong registrations = new AtomicLong();
+    private LunarClientAPI lunarClientAPI;
+    private Map<UUID, List<LCPacket>> packetQueue;
+
+    private LCLoadTest(Map<String, String> options) {
+        this.options = options;
+    }
+
+    public static void main(String[] args) throws Exception {
+        final Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Expected an option, got " + args[i]);
+            }
+            options.put(args[i].substring(2), args[i + 1]);
+        }
+        System.exit(new LCLoadTest(options).run() ? 0 : 1);
+    }
+
+    private boolean run() throws Exception {
+        final int players = this.intOption("players", 1000);
+        final double joinRate = this.doubleOption("join-rate", 500);
+        final double lunar = this.doubleOption("lunar", 0.8);
+        final int registerDelayMin = this.intOption("register-delay-min", 1);
+        final int registerDelayMax = Math.max(registerDelayMin, this.intOption("register-delay-max", 30));
+        final double fragments = this.doubleOption("fragments", 0.5);
+        final int sends = this.intOption("sends", 8);
+        final int worldChanges = this.intOption("world-changes", 2);
+        final int session = Math.max(1, this.intOption("session", 1200));
+        final double maxTickMillis = this.doubleOption("max-tick-ms", 0);
+        final Random random = new Random(this.intOption("seed", 0));
+
+        final Path dataFolder = Files.createTempDirectory("lunarclient-loadtest");
+        try {
+            this.enable(dataFolder.toFile());
+
+            final List<World> worlds = server.getWorlds();
+            final LCPacket[] joinPackets = {
+                    new LCPacketServerRule(ServerRule.COMPETITIVE_GAME, true),
+                    new LCPacketCooldown("Ender Pearl", 15_000L, 368),
+                    new LCPacketTitle("title", "Welcome", 1.0F, 3_000L, 500L, 500L)
+            };
+
+            // Script every player up front, so building the script isn't measured.
+            final long joinTicks = (long) Math.ceil(players * 20.0 / Math.max(joinRate, 0.001));
+            final int ticks = (int) (joinTicks + session + registerDelayMax + FAIL_REGISTER_TICKS + 20);
+            final List<List<Runnable>> script = new ArrayList<>(ticks + 1);
+            for (int tick = 0; tick <= ticks; tick++) {
+                script.add(new ArrayList<>());
+            }
+
+            int late = 0;
+            for (int index = 0; index < players; index++) {
+                final LCSimulatedPlayer player = server.createPlayer(index, worlds.get(0));
+                final int join = (int) (index * 20.0 / Math.max(joinRate, 0.001)) + 1;
+                script.get(join).add(() -> {
+                    player.setOnline(true);
+                    server.getPluginManager().callEvent(new PlayerJoinEvent(player.getPlayer(), null));
+                    for (int i = 0; i < sends; i++) {
+                        lunarClientAPI.sendPacket(player.getPlayer(), joinPackets[i % joinPackets.length]);
+                    }
+                });
+
+                if (random.nextDouble() < lunar) {
+                    final int delay = registerDelayMin + random.nextInt(registerDelayMax - registerDelayMin + 1);
+                    final boolean batches = random.nextDouble() < fragments;
+                    if (delay >= FAIL_REGISTER_TICKS) {
+                        late++;
+                    }
+                    script.get(Math.min(join + delay, join + session - 1)).add(() -> {
+                        if (batches) {
+                            player.addChannel(LCPacketFragmenter.FRAGMENT_CHANNEL);
+                            server.getPluginManager().callEvent(new PlayerRegisterChannelEvent(player.getPlayer(), LCPacketFragmenter.FRAGMENT_CHANNEL));
+                        }
+                        player.addChannel(LunarClientAPI.MESSAGE_CHANNEL);
+                        server.getPluginManager().callEvent(new PlayerRegisterChannelEvent(player.getPlayer(), LunarClientAPI.MESSAGE_CHANNEL));
+                    });
+                }
+
+                for (int change = 1; change <= worldChanges; change++) {
+                    script.get(join + session * change / (worldChanges + 1)).add(() -> {
+                        final World from = player.getWorld();
+                        player.setWorld(worlds.get((worlds.indexOf(from) + 1) % worlds.size()));
+                        server.getPluginManager().callEvent(new PlayerChangedWorldEvent(player.getPlayer(), from));
+                    });
+                }
+
+                script.get(join + session).add(() -> {
+                    server.getPluginManager().callEvent(new PlayerQuitEvent(player.getPlayer(), null));
+                    player.setOnline(false);
+                });
+            }
+            final long actions = script.stream().mapToLong(List::size).sum();
+
+            final com.sun.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean
+                    ? (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean() : null;
+            final long thread = Thread.currentThread().getId();
+            final long[] tickNanos = new long[ticks + 1];
+            long allocated = 0;
+            long peakQueuedPackets = 0;
+            long peakQueuedBytes = 0;
+            long peakQueuedPlayers = 0;
+
+            for (int tick = 0; tick <= ticks; tick++) {
+                final long allocatedBefore = threads == null ? 0 : threads.getThreadAllocatedBytes(thread);
+                final long start = System.nanoTime();
+                for (Runnable action : script.get(tick)) {
+                    action.run();
+                }
+                server.getScheduler().tick(tick);
+                tickNanos[tick] = System.nanoTime() - start;
+                if (threads != null) {
+                    allocated += threads.getThreadAllocatedBytes(thread) - allocatedBefore;
+                }
+                script.set(tick, null);
+
+                if (tick % SAMPLE_INTERVAL == 0) {
+                    peakQueuedPlayers = Math.max(peakQueuedPlayers, packetQueue.size());
+                    long queuedPackets = 0;
+                    long queuedBytes = 0;
+                    for (List<LCPacket> queue : packetQueue.values()) {
+                        queuedPackets += queue.size();
+                        for (LCPacket packet : queue) {
+                            queuedBytes += packetSizes.computeIfAbsent(packet, key -> LCPacket.getPacketData(key).length);
+                        }
+                    }
+                    peakQueuedPackets = Math.max(peakQueuedPackets, queuedPackets);
+                    peakQueuedBytes = Math.max(peakQueuedBytes, queuedBytes);
+                }
+            }
+            this.disable();
+            server.getScheduler().shutdown();
+
+            final long totalNanos = Arrays.stream(tickNanos).sum();
+            final long[] sorted = tickNanos.clone();
+            Arrays.sort(sorted);
+            final double p99Millis = sorted[(int) (sorted.length * 0.99)] / 1e6;
+            final long overBudget = Arrays.stream(tickNanos).filter(nanos -> nanos > 50_000_000L).count();
+
+            System.out.println("Lunar Client API load test");
+            System.out.printf("  players            %d joined over %d ticks, %d registered, %d registered late%n", players, joinTicks, registrations.get(), late);
+            System.out.printf("  throughput         %.0f actions/s of main thread time (%d actions)%n", actions / Math.max(totalNanos / 1e9, 1e-9), actions);
+            System.out.printf("  tick time          avg %.3f ms, p50 %.3f ms, p99 %.3f ms, max %.3f ms%n",
+                    totalNanos / 1e6 / tickNanos.length, sorted[sorted.length / 2] / 1e6, p99Millis, sorted[sorted.length - 1] / 1e6);
+            System.out.printf("  ticks over 50 ms   %d of %d%n", overBudget, tickNanos.length);
+            System.out.printf("  peak packet queue  %d packets, %d bytes, %d players%n", peakQueuedPackets, peakQueuedBytes, peakQueuedPlayers);
+            System.out.printf("  sent               %d plugin messages, %d bytes%n", server.getMessages(), server.getBytes());
+            System.out.printf("  allocated          %s%n", threads == null ? "unavailable" : String.format("%.1f MB on the main thread", allocated / 1048576.0));
+            System.out.printf("  errors             %d%n", server.getErrors());
+
+            boolean passed = server.getErrors() == 0;
+            if (maxTickMillis > 0 && p99Millis > maxTickMillis) {
+                System.out.printf("FAILED: the 99th percentile tick took %.3f ms, the limit is %.3f ms%n", p99Millis, maxTickMillis);
+                passed = false;
+            }
+            if (server.getErrors() > 0) {
+                System.out.println("FAILED: event handlers or tasks threw, see the log above.");
+            }
+            return passed;
+        } finally {
+            deleteRecursively(dataFolder);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void enable(File dataFolder) throws ReflectiveOperationException {
+        final Constructor<LunarClientAPI> constructor = LunarClientAPI.class.getDeclaredConstructor(
+                JavaPluginLoader.class, PluginDescriptionFile.class, File.class, File.class);
+        constructor.setAccessible(true);
+        final PluginDescriptionFile description = new PluginDescriptionFile("LunarClient-API", "loadtest", LunarClientAPI.class.getName());
+        this.lunarClientAPI = constructor.newInstance(new JavaPluginLoader(server.getServer()), description, dataFolder, new File(dataFolder, "LunarClient-API.jar"));
+        this.setEnabled(true);
+
+        final Field queue = LunarClientAPI.class.getDeclaredField("packetQueue");
+        queue.setAccessible(true);
+        this.packetQueue = (Map<UUID, List<LCPacket>>) queue.get(lunarClientAPI);
+
+        server.getPluginManager().registerEvents(new Listener() {
+            @EventHandler
+            public void onRegister(LCPlayerRegisterEvent event) {
+                registrations.incrementAndGet();
+            }
+        }, lunarClientAPI);
+    }
+
+    private void disable() throws ReflectiveOperationException {
+        this.setEnabled(false);
+    }
+
+    private void setEnabled(boolean enabled) throws ReflectiveOperationException {
+        final Method setEnabled = JavaPlugin.class.getDeclaredMethod("setEnabled", boolean.class);
+        setEnabled.setAccessible(true);
+        setEnabled.invoke(lunarClientAPI, enabled);
+    }
+
+    private int intOption(String name, int defaultValue) {
+        final String value = options.get(name);
+        return value == null ? defaultValue : Integer.parseInt(value);
+    }
+
+    private double doubleOption(String name, double defaultValue) {
+        final String value = options.get(name);
+        return value == null ? defaultValue : Double.parseDouble(value);
+    }
+
+    private static void deleteRecursively(Path path) throws IOException {
+        try (Stream<Path> files = Files.walk(path)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.lunarclient.bukkitapi.loadtest;
+
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.plugin.messaging.StandardMessenger;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A player that only exists in memory, with the state the API reads from players:
+ * the world, if they are online, and the channels they listen on.
+ * <p>
+ * Plugin messages sent to the player are checked like a server would and then counted.
+ */
+final class LCSimulatedPlayer {
+
+    private final LCSimulatedServer server;
+    private final UUID uniqueId;
+    private final String name;
+    private final Set<String> channels = Collections.newSetFromMap(new ConcurrentHashMap<>());
+    private final Player player;
+    private volatile World world;
+    private volatile boolean online;
+
+    LCSimulatedPlayer(LCSimulatedServer server, UUID uniqueId, String name, World world) {
+        this.server = server;
+        this.uniqueId = uniqueId;
+        this.name = name;
+        this.world = world;
+        this.player = LCSimulatedServer.proxy(Player.class, name, this::answer);
+    }
+
+    Player getPlayer() {
+        return player;
+    }
+
+    UUID getUniqueId() {
+        return uniqueId;
+    }
+
+    World getWorld() {
+        return world;
+    }
+
+    void setWorld(World world) {
+        this.world = world;
+    }
+
+    void setOnline(boolean online) {
+        this.online = online;
+        this.server.setOnline(this, online);
+        if (!online) {
+            this.channels.clear();
+        }
+    }
+
+    void addChannel(String channel) {
+        this.channels.add(channel);
+    }
+
+    private Object answer(String method, Object[] args) {
+        switch (method) {
+            case "getUniqueId":
+                return uniqueId;
+            case "getName":
+            case "getDisplayName":
+            case "getPlayerListName":
+                return name;
+            case "getWorld":
+                return world;
+            case "isOnline":
+                return online;
+            case "getPlayer":
+                return online ? player : null;
+            case "getServer":
+                return server.getServer();
+            case "getListeningPluginChannels":
+                return Collections.unmodifiableSet(channels);
+            case "sendPluginMessage":
+                final byte[] message = (byte[]) args[2];
+                StandardMessenger.validatePluginMessage(server.getMessenger(), (Plugin) args[0], (String) args[1], message);
+                if (online && channels.contains((String) args[1])) {
+                    server.recordMessage(message.length);
+                }
+                return null;
+            default:
+                return LCSimulatedServer.UNHANDLED;
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.lunarclient.bukkitapi.loadtest;
+
+import org.bukkit.scheduler.BukkitScheduler;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A Bukkit scheduler driven by the simulation instead of by a server.
+ * <p>
+ * Synchronous tasks run when {@link #tick(long)} reaches them, on the thread calling it,
+ * asynchronous tasks run on a small thread pool. Only the methods the API uses are supported.
+ */
+final class LCSimulatedScheduler {
+
+    private final PriorityQueue<Task> tasks = new PriorityQueue<>();
+    private final List<Task> incoming = new ArrayList<>();
+    private final ExecutorService async = Executors.newFixedThreadPool(2, runnable -> {
+        final Thread thread = new Thread(runnable, "Simulated Async");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicLong sequence = new AtomicLong();
+    private volatile long currentTick;
+
+    /**
+     * Create the {@link BukkitScheduler} the server hands to plugins.
+     *
+     * @return A scheduler backed by this simulation.
+     */
+    BukkitScheduler createProxy() {
+        return (BukkitScheduler) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{BukkitScheduler.class}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "runTask":
+                    return this.schedule((Runnable) args[1], 1, -1);
+                case "runTaskLater":
+                    return this.schedule((Runnable) args[1], (Long) args[2], -1);
+                case "runTaskTimer":
+                    return this.schedule((Runnable) args[1], (Long) args[2], (Long) args[3]);
+                case "runTaskAsynchronously":
+                    this.async.execute((Runnable) args[1]);
+                    return null;
+                case "toString":
+                    return "LCSimulatedScheduler";
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                default:
+                    throw new UnsupportedOperationException("The simulated scheduler doesn't support " + method.getName());
+            }
+        });
+    }
+
+    /**
+     * Run every synchronous task due on a tick.
+     *
+     * @param tick The tick the simulation reached.
+     */
+    void tick(long tick) {
+        this.currentTick = tick;
+        synchronized (incoming) {
+            tasks.addAll(incoming);
+            incoming.clear();
+        }
+
+        while (!tasks.isEmpty() && tasks.peek().due <= tick) {
+            final Task task = tasks.poll();
+            if (task.cancelled) {
+                continue;
+            }
+            task.runnable.run();
+            if (task.period > 0 && !task.cancelled) {
+                task.due = tick + task.period;
+                task.order = sequence.incrementAndGet();
+                tasks.add(task);
+            }
+        }
+    }
+
+    /**
+     * Stop the async thread pool, waiting for running tasks.
+     *
+     * @throws InterruptedException If interrupted while waiting.
+     */
+    void shutdown() throws InterruptedException {
+        async.shutdown();
+        async.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    private BukkitTask schedule(Runnable runnable, long delay, long period) {
+        final Task task = new Task(runnable, currentTick + Math.max(1L, delay), period, sequence.incrementAndGet());
+        synchronized (incoming) {
+            incoming.add(task);
+        }
+        return task.createProxy();
+    }
+
+    private static final class Task implements Comparable<Task> {
+
+        private final Runnable runnable;
+        private final long period;
+        private long due;
+        private long order;
+        private volatile boolean cancelled;
+
+        private Task(Runnable runnable, long due, long period, long order) {
+            this.runnable = runnable;
+            this.due = due;
+            this.period = period;
+            this.order = order;
+        }
+
+        /**
+         * Create the {@link BukkitTask} handed to the plugin, only cancelling is supported.
+         *
+         * @return A task backed by this one.
+         */
+        private BukkitTask createProxy() {
+            return (BukkitTask) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{BukkitTask.class}, (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "cancel":
+                        this.cancelled = true;
+                        return null;
+                    case "isCancelled":
+                        return cancelled;
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "equals":
+                        return proxy == args[0];
+                    default:
+                        throw new UnsupportedOperationException("The simulated task doesn't support " + method.getName());
+                }
+            });
+        }
+
+        @Override
+        public int compareTo(Task other) {
+            final int byDue = Long.compare(due, other.due);
+            return byDue != 0 ? byDue : Long.compare(order, other.order);
+        }
+    }
+}
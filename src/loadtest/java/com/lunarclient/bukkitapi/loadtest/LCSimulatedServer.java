@@ -0,0 +1,263 @@
+package com.lunarclient.bukkitapi.loadtest;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Server;
+import org.bukkit.World;
+import org.bukkit.command.SimpleCommandMap;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.PluginManager;
+import org.bukkit.plugin.SimplePluginManager;
+import org.bukkit.plugin.messaging.Messenger;
+import org.bukkit.plugin.messaging.StandardMessenger;
+import org.bukkit.scheduler.BukkitScheduler;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+/**
+ * A Bukkit server that only exists in memory, with the real plugin manager and messenger
+ * and simulated players, worlds and scheduler.
+ * <p>
+ * The thread that creates the server is its main thread. Anything the API doesn't use
+ * returns a default value instead of failing.
+ */
+final class LCSimulatedServer {
+
+    /**
+     * Returned by an {@link Answer} for methods it doesn't simulate.
+     */
+    static final Object UNHANDLED = new Object();
+
+    private final Thread mainThread = Thread.currentThread();
+    private final Logger logger = Logger.getLogger("LoadTest");
+    private final LCSimulatedScheduler scheduler = new LCSimulatedScheduler();
+    private final BukkitScheduler bukkitScheduler = scheduler.createProxy();
+    private final Messenger messenger = new StandardMessenger();
+    private final List<World> worlds = new ArrayList<>();
+    private final Map<UUID, LCSimulatedPlayer> players = new ConcurrentHashMap<>();
+    private final LongAdder messages = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final Server server;
+    private final PluginManager pluginManager;
+
+    LCSimulatedServer(String... worldNames) {
+        this.server = proxy(Server.class, "LCSimulatedServer", this::answer);
+        this.pluginManager = new SimplePluginManager(server, new SimpleCommandMap(server));
+        for (String worldName : worldNames) {
+            final UUID uid = UUID.nameUUIDFromBytes(worldName.getBytes());
+            this.worlds.add(proxy(World.class, worldName, (method, args) -> {
+                switch (method) {
+                    case "getName":
+                        return worldName;
+                    case "getUID":
+                        return uid;
+                    default:
+                        return UNHANDLED;
+                }
+            }));
+        }
+
+        // Exceptions thrown by event handlers and tasks are logged rather than thrown, count them as failures.
+        this.logger.addHandler(new Handler() {
+            @Override
+            public void publish(LogRecord record) {
+                if (record.getLevel().intValue() >= Level.SEVERE.intValue() || record.getThrown() != null) {
+                    errors.increment();
+                }
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        });
+        Bukkit.setServer(server);
+    }
+
+    /**
+     * Create a player that isn't online yet.
+     *
+     * @param index The number of the player, used for the name and identifier.
+     * @param world The world the player joins in.
+     * @return The player.
+     */
+    LCSimulatedPlayer createPlayer(int index, World world) {
+        return new LCSimulatedPlayer(this, new UUID(0x4C43L, index), "Player" + index, world);
+    }
+
+    void setOnline(LCSimulatedPlayer player, boolean online) {
+        if (online) {
+            this.players.put(player.getUniqueId(), player);
+        } else {
+            this.players.remove(player.getUniqueId());
+        }
+    }
+
+    void recordMessage(int length) {
+        this.messages.increment();
+        this.bytes.add(length);
+    }
+
+    Server getServer() {
+        return server;
+    }
+
+    PluginManager getPluginManager() {
+        return pluginManager;
+    }
+
+    Messenger getMessenger() {
+        return messenger;
+    }
+
+    LCSimulatedScheduler getScheduler() {
+        return scheduler;
+    }
+
+    List<World> getWorlds() {
+        return Collections.unmodifiableList(worlds);
+    }
+
+    Logger getLogger() {
+        return logger;
+    }
+
+    long getMessages() {
+        return messages.sum();
+    }
+
+    long getBytes() {
+        return bytes.sum();
+    }
+
+    long getErrors() {
+        return errors.sum();
+    }
+
+    private Object answer(String method, Object[] args) {
+        switch (method) {
+            case "getName":
+                return "LCSimulatedServer";
+            case "getVersion":
+            case "getBukkitVersion":
+                return "loadtest";
+            case "getLogger":
+                return logger;
+            case "getPluginManager":
+                return pluginManager;
+            case "getMessenger":
+                return messenger;
+            case "getScheduler":
+                return bukkitScheduler;
+            case "isPrimaryThread":
+                return Thread.currentThread() == mainThread;
+            case "getWorlds":
+                return new ArrayList<>(worlds);
+            case "getOnlinePlayers":
+                final Collection<Player> online = new ArrayList<>(players.size());
+                for (LCSimulatedPlayer player : players.values()) {
+                    online.add(player.getPlayer());
+                }
+                return Collections.unmodifiableCollection(online);
+            case "getPlayer":
+                if (args[0] instanceof UUID) {
+                    final LCSimulatedPlayer player = players.get(args[0]);
+                    return player == null ? null : player.getPlayer();
+                }
+                return UNHANDLED;
+            default:
+                return UNHANDLED;
+        }
+    }
+
+    /**
+     * Implement an interface with a function of the method name and arguments.
+     *
+     * @param type   The interface.
+     * @param name   What the instance is called by toString.
+     * @param answer The simulated methods.
+     * @param <T>    The type of the interface.
+     * @return The instance.
+     */
+    static <T> T proxy(Class<T> type, String name, Answer answer) {
+        return type.cast(Proxy.newProxyInstance(LCSimulatedServer.class.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            final Object result = answer.answer(method.getName(), args == null ? new Object[0] : args);
+            if (result != UNHANDLED) {
+                return result;
+            }
+
+            switch (method.getName()) {
+                case "toString":
+                    return name;
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                default:
+                    return defaultValue(method);
+            }
+        }));
+    }
+
+    private static Object defaultValue(Method method) {
+        final Class<?> type = method.getReturnType();
+        if (!type.isPrimitive() || type == void.class) {
+            return null;
+        }
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == char.class) {
+            return '\0';
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        if (type == float.class) {
+            return 0F;
+        }
+        if (type == double.class) {
+            return 0D;
+        }
+        if (type == byte.class) {
+            return (byte) 0;
+        }
+        if (type == short.class) {
+            return (short) 0;
+        }
+        return 0;
+    }
+
+    /**
+     * The simulated methods of an instance.
+     */
+    @FunctionalInterface
+    interface Answer {
+
+        /**
+         * Answer a method call.
+         *
+         * @param method The name of the method.
+         * @param args   The arguments, never null.
+         * @return The result, or {@link #UNHANDLED} if the method isn't simulated.
+         * @throws Throwable Thrown to the caller.
+         */
+        Object answer(String method, Object[] args) throws Throwable;
+    }
+}
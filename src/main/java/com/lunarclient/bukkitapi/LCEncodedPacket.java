@@ -0,0 +1,39 @@
+package com.lunarclient.bukkitapi;
+
+import com.lunarclient.bukkitapi.nethandler.LCPacket;
+import lombok.Getter;
+
+/**
+ * A {@link LCPacket} together with its encoded form.
+ * <p>
+ * Encoding a packet once and sending the result to many players
+ * avoids encoding the same packet again for every player.
+ * The encoded data is shared, so it must never be modified.
+ */
+@Getter
+public final class LCEncodedPacket {
+
+    private final LCPacket packet;
+    private final byte[] data;
+
+    /**
+     * Encode a packet.
+     *
+     * @param packet The packet to encode.
+     */
+    public LCEncodedPacket(LCPacket packet) {
+        this(packet, LCPacket.getPacketData(packet));
+    }
+
+    /**
+     * Pair a packet with data it was previously encoded to.
+     *
+     * @param packet The packet.
+     * @param data   The encoded form of that packet.
+     */
+    public LCEncodedPacket(LCPacket packet, byte[] data) {
+        this.packet = packet;
+        this.data = data;
+    }
+
+}
@@ -1,5 +1,6 @@
 package com.lunarclient.bukkitapi;
 
+import com.lunarclient.bukkitapi.audience.LCAudience;
 import com.lunarclient.bukkitapi.nethandler.LCPacket;
 import org.bukkit.entity.Player;
 
@@ -23,6 +24,15 @@ public interface LCPacketWrapper<T extends LCPacket> {
         send(player, getPacket());
     }
 
+    /**
+     * Send the wrapped packet to every member of an audience, encoding it only once.
+     *
+     * @param audience The audience to receive the packet.
+     */
+    default void send(LCAudience audience) {
+        audience.send(getPacket());
+    }
+
     /**
      * Send any LCPacket to a Lunar Client user. This is used in `send` method above.
      * <p>
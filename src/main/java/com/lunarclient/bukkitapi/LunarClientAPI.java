@@ -1,8 +1,20 @@
 package com.lunarclient.bukkitapi;
 
+import com.lunarclient.bukkitapi.audience.LCAudienceManager;
+import com.lunarclient.bukkitapi.bundle.LCCompiledBundle;
+import com.lunarclient.bukkitapi.bundle.LCFeatureBundle;
+import com.lunarclient.bukkitapi.bundle.LCFeatureBundleLoader;
+import com.lunarclient.bukkitapi.dispatch.LCExecutionMode;
+import com.lunarclient.bukkitapi.dispatch.LCPacketDispatcher;
+import com.lunarclient.bukkitapi.dispatch.LCPacketHandler;
 import com.lunarclient.bukkitapi.event.LCPacketReceivedEvent;
 import com.lunarclient.bukkitapi.event.LCPacketSentEvent;
 import com.lunarclient.bukkitapi.event.LCPlayerUnregisterEvent;
+import com.lunarclient.bukkitapi.fragment.LCPacketFragmenter;
+import com.lunarclient.bukkitapi.governor.LCLoadGovernor;
+import com.lunarclient.bukkitapi.governor.LCTrafficCategory;
+import com.lunarclient.bukkitapi.hologram.LCHologramAnimator;
+import com.lunarclient.bukkitapi.jfr.LCFlightRecorder;
 import com.lunarclient.bukkitapi.listener.LunarClientLoginListener;
 import com.lunarclient.bukkitapi.nethandler.LCPacket;
 import com.lunarclient.bukkitapi.nethandler.client.*;
@@ -11,6 +23,22 @@ import com.lunarclient.bukkitapi.nethandler.shared.LCPacketWaypointAdd;
 import com.lunarclient.bukkitapi.nethandler.shared.LCPacketWaypointRemove;
 import com.lunarclient.bukkitapi.object.LCWaypoint;
 import com.lunarclient.bukkitapi.object.StaffModule;
+import com.lunarclient.bukkitapi.presence.LCPresenceStore;
+import com.lunarclient.bukkitapi.recorder.LCPacketDirection;
+import com.lunarclient.bukkitapi.recorder.LCPacketRecorder;
+import com.lunarclient.bukkitapi.scheduler.LCScheduler;
+import com.lunarclient.bukkitapi.snapshot.LCStateSnapshot;
+import com.lunarclient.bukkitapi.spectate.LCSpectatorMirror;
+import com.lunarclient.bukkitapi.staff.LCStaffModuleTracker;
+import com.lunarclient.bukkitapi.template.LCTemplateBinding;
+import com.lunarclient.bukkitapi.title.LCTitleScheduler;
+import com.lunarclient.bukkitapi.transport.LCMessengerTransport;
+import com.lunarclient.bukkitapi.transport.LCNettyTransport;
+import com.lunarclient.bukkitapi.transport.LCPacketTransport;
+import com.lunarclient.bukkitapi.transport.LCPipelineInjector;
+import com.lunarclient.bukkitapi.waypoint.LCWaypointTracker;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import lombok.Getter;
 import lombok.Setter;
 import org.bukkit.Bukkit;
@@ -19,13 +47,19 @@ import org.bukkit.Material;
 import org.bukkit.World;
 import org.bukkit.entity.Player;
 import org.bukkit.event.Listener;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.plugin.PluginDescriptionFile;
 import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.plugin.java.JavaPluginLoader;
 import org.bukkit.plugin.messaging.Messenger;
 import org.bukkit.util.Vector;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
+import java.util.logging.Level;
 import java.util.stream.Collectors;
 
 public final class LunarClientAPI extends JavaPlugin implements Listener {
@@ -40,16 +74,143 @@ public final class LunarClientAPI extends JavaPlugin implements Listener {
     @Setter
     private LCNetHandlerServer netHandlerServer = new LunarClientDefaultNetHandler();
     private final Set<UUID> playersRunningLunarClient = Collections.newSetFromMap(new ConcurrentHashMap<>());
-    private final Set<UUID> playersNotRegistered = new HashSet<>();
-    private final Map<UUID, List<LCPacket>> packetQueue = new HashMap<>();
-    private final Map<UUID, Function<World, String>> worldIdentifiers = new HashMap<>();
+    private final Set<UUID> playersNotRegistered = Collections.newSetFromMap(new ConcurrentHashMap<>());
+    private final Map<UUID, List<LCPacket>> packetQueue = new ConcurrentHashMap<>();
+    private final Map<UUID, Function<World, String>> worldIdentifiers = new ConcurrentHashMap<>();
+    // Encoded LCPacketUpdateWorld by world identifier, sent to every player that joins or changes world.
+    private final Map<String, LCEncodedPacket> worldUpdates = new ConcurrentHashMap<>();
+    // How encoded packets reach the player's connection, replaced in onEnable if the server allows direct access.
+    @Getter
+    @Setter
+    private LCPacketTransport transport = new LCMessengerTransport(this);
+    private LCPipelineInjector pipelineInjector;
+    // Picked for the running server, every task of the API goes through it.
+    @Getter
+    private final LCScheduler scheduler = LCScheduler.create();
+    @Getter
+    private final LCPacketDispatcher packetDispatcher = new LCPacketDispatcher(scheduler);
+    @Getter
+    private final LCPacketFragmenter fragmenter = new LCPacketFragmenter(this);
+    @Getter
+    private final LCStaffModuleTracker staffModuleTracker = new LCStaffModuleTracker();
+    @Getter
+    private final LCAudienceManager audienceManager = new LCAudienceManager(this);
+    @Getter
+    private final LCTitleScheduler titleScheduler = new LCTitleScheduler(this, 8);
+    @Getter
+    private final LCHologramAnimator hologramAnimator = new LCHologramAnimator();
+    @Getter
+    private final LCWaypointTracker waypointTracker = new LCWaypointTracker();
+    // Slows down cosmetic updates while the server is lagging.
+    @Getter
+    private final LCLoadGovernor loadGovernor = new LCLoadGovernor(this);
+    // Sends spectators the cooldowns, titles, waypoints and teammates of the player they are watching.
+    @Getter
+    private final LCSpectatorMirror spectatorMirror = new LCSpectatorMirror(this);
+    // Opt-in, when set every packet sent or received is appended to the recording.
+    @Getter
+    @Setter
+    private volatile LCPacketRecorder packetRecorder;
+    // Opt-in, when set sends, receives, queue flushes and failed registrations are recorded as Flight Recorder events.
+    @Getter
+    @Setter
+    private volatile LCFlightRecorder flightRecorder;
+    // Opt-in, when set players that were running Lunar Client on another server are registered as soon as they join.
+    @Getter
+    @Setter
+    private volatile LCPresenceStore presenceStore;
+    // Sent to every player when they register, see LCFeatureBundle.
+    @Getter
+    @Setter
+    private volatile LCCompiledBundle featureBundle;
+    private LCFeatureBundleLoader featureBundleLoader;
+    // Restored on enable and saved on disable, set to null to stop the state from being saved.
+    @Getter
+    @Setter
+    private LCStateSnapshot snapshot;
+
+    public LunarClientAPI() {
+        super();
+    }
+
+    /**
+     * Create the plugin outside of a plugin class loader, like the load test harness
+     * does to run the API against simulated players without a server.
+     *
+     * @param loader      The loader of the plugin.
+     * @param description The description of the plugin.
+     * @param dataFolder  The folder of the plugin.
+     * @param file        The jar of the plugin.
+     */
+    LunarClientAPI(JavaPluginLoader loader, PluginDescriptionFile description, File dataFolder, File file) {
+        super(loader, description, dataFolder, file);
+    }
 
     @Override
     public void onEnable() {
         instance = this;
+        if (this.flightRecorder == null) {
+            this.flightRecorder = LCFlightRecorder.fromSystemProperties();
+        }
+
+        final LCNettyTransport nettyTransport = LCNettyTransport.create(this);
+        if (nettyTransport != null) {
+            this.transport = nettyTransport;
+        }
+
+        if (Boolean.parseBoolean(System.getProperty(LCStateSnapshot.ENABLED_PROPERTY, "true"))) {
+            this.snapshot = new LCStateSnapshot(this, new File(this.getDataFolder(), "snapshot.bin"));
+            try {
+                // Restored state is kept until plugins replace or remove it.
+                if (this.snapshot.load()) {
+                    this.getLogger().info("Restored the Lunar Client state from the last run.");
+                }
+            } catch (IOException ex) {
+                this.getLogger().log(Level.WARNING, "Failed to restore the Lunar Client state from the last run.", ex);
+            }
+        }
 
         this.registerPluginChannel(MESSAGE_CHANNEL);
         this.getServer().getPluginManager().registerEvents(new LunarClientLoginListener(this), this);
+        this.getServer().getPluginManager().registerEvents(this.packetDispatcher, this);
+        this.getServer().getPluginManager().registerEvents(this.audienceManager, this);
+        this.scheduler.runTimer(this, this.titleScheduler, 1L, 1L);
+        this.scheduler.runTimer(this, this.hologramAnimator, 1L, 1L);
+        this.scheduler.runTimer(this, this.waypointTracker, 1L, 1L);
+        this.scheduler.runTimer(this, this.loadGovernor, 1L, 1L);
+        this.scheduler.runTimer(this, this.spectatorMirror, 1L, 1L);
+    }
+
+    @Override
+    public void onDisable() {
+        if (this.featureBundleLoader != null) {
+            this.featureBundleLoader.close();
+            this.featureBundleLoader = null;
+        }
+
+        final LCPipelineInjector pipelineInjector = this.pipelineInjector;
+        if (pipelineInjector != null) {
+            pipelineInjector.uninjectAll();
+            this.pipelineInjector = null;
+        }
+
+        final LCStateSnapshot snapshot = this.snapshot;
+        if (snapshot != null) {
+            try {
+                snapshot.save();
+            } catch (IOException ex) {
+                this.getLogger().log(Level.WARNING, "Failed to save the Lunar Client state.", ex);
+            }
+        }
+
+        final LCPacketRecorder recorder = this.packetRecorder;
+        if (recorder != null) {
+            try {
+                recorder.close();
+            } catch (IOException ex) {
+                this.getLogger().log(Level.WARNING, "Failed to close the packet recording.", ex);
+            }
+        }
     }
 
     /**
@@ -60,11 +221,166 @@ public final class LunarClientAPI extends JavaPlugin implements Listener {
     private void registerPluginChannel(final String bukkitChannel) {
         final Messenger messenger = getServer().getMessenger();
         messenger.registerOutgoingPluginChannel(this, bukkitChannel);
-        messenger.registerIncomingPluginChannel(this, bukkitChannel, (channel, player, bytes) -> {
-            final LCPacket packet = LCPacket.handle(bytes, player);
-            this.getServer().getPluginManager().callEvent(new LCPacketReceivedEvent(player, packet));
+        messenger.registerIncomingPluginChannel(this, bukkitChannel, (channel, player, bytes) -> this.handleIncomingPacket(player, bytes));
+
+        // Clients that can reassemble large packets and unpack batches listen on this channel as well.
+        messenger.registerOutgoingPluginChannel(this, LCPacketFragmenter.FRAGMENT_CHANNEL);
+        messenger.registerIncomingPluginChannel(this, LCPacketFragmenter.FRAGMENT_CHANNEL,
+                (channel, player, bytes) -> this.fragmenter.receive(player, bytes, this::handleIncomingPacket));
+    }
+
+    /**
+     * Decode a single encoded packet received from a player and handle it.
+     * <p>
+     * This can be called from any thread. Off the thread that owns the player (the main thread,
+     * or the player's region thread on region threaded servers), packet handlers subscribed
+     * asynchronously are called straight away, while {@link LCPacketReceivedEvent} and the
+     * net handler are moved to that thread (unless nothing but the default net handler would see the packet).
+     * <p>
+     * Used by the plugin channel listeners and {@link LCPipelineInjector}. Do not use unless you are certain you need this.
+     *
+     * @param player The player that sent the packet.
+     * @param bytes  The encoded packet.
+     */
+    public void handleIncomingPacket(final Player player, byte[] bytes) {
+        this.record(LCPacketDirection.INBOUND, player, Unpooled.wrappedBuffer(bytes));
+
+        final LCFlightRecorder flightRecorder = this.flightRecorder;
+        if (flightRecorder == null) {
+            this.dispatchIncomingPacket(player, LCPacket.handle(bytes, player));
+            return;
+        }
+
+        final long start = System.nanoTime();
+        final LCPacket packet = LCPacket.handle(bytes, player);
+        final long decoded = System.nanoTime();
+        this.dispatchIncomingPacket(player, packet);
+        flightRecorder.packetReceived(player, packet, bytes.length, decoded - start, System.nanoTime() - decoded);
+    }
+
+    /**
+     * Handle a packet decoded from a player, on the current thread or the thread that owns the player.
+     *
+     * @param player The player that sent the packet.
+     * @param packet The decoded packet, nothing is done if it is null.
+     */
+    private void dispatchIncomingPacket(final Player player, LCPacket packet) {
+        if (packet == null) {
+            return;
+        }
+
+        if (this.scheduler.isOwnedByCurrentThread(player)) {
+            this.callReceivedEvent(player, packet);
             packet.process(netHandlerServer);
-        });
+            this.packetDispatcher.dispatch(player, packet);
+            return;
+        }
+
+        this.packetDispatcher.dispatch(player, packet);
+        // The default net handler is safe to call from any thread, anything else
+        // (and every event listener) expects to be on the thread that owns the player.
+        if (netHandlerServer.getClass() == LunarClientDefaultNetHandler.class && !hasReceivedListeners()) {
+            packet.process(netHandlerServer);
+        } else {
+            this.scheduler.run(this, player, () -> {
+                this.callReceivedEvent(player, packet);
+                packet.process(netHandlerServer);
+            });
+        }
+    }
+
+    /**
+     * Fire a {@link LCPacketReceivedEvent}, unless nothing listens to it.
+     *
+     * @param player The player that sent the packet.
+     * @param packet The packet received.
+     */
+    private void callReceivedEvent(final Player player, LCPacket packet) {
+        if (hasReceivedListeners()) {
+            this.getServer().getPluginManager().callEvent(new LCPacketReceivedEvent(player, packet));
+        }
+    }
+
+    private static boolean hasReceivedListeners() {
+        return LCPacketReceivedEvent.getHandlerList().getRegisteredListeners().length != 0;
+    }
+
+    /**
+     * Load a {@link LCFeatureBundle} from a YAML file and send it to every player that registers from now on.
+     * <p>
+     * The bundle is compiled straight away, and compiled again in the background whenever the file changes.
+     * Loading another file stops watching the previous one.
+     *
+     * @param file The YAML file of the bundle.
+     * @return The loader watching the file.
+     */
+    public LCFeatureBundleLoader loadFeatureBundle(File file) {
+        if (this.featureBundleLoader != null) {
+            this.featureBundleLoader.close();
+        }
+
+        final LCFeatureBundleLoader loader = new LCFeatureBundleLoader(this, file);
+        loader.load();
+        loader.start();
+        this.featureBundleLoader = loader;
+        return loader;
+    }
+
+    /**
+     * Decode Lunar Client plugin messages on each player's network thread instead of
+     * waiting for Bukkit to hand them to us on the main thread.
+     * <p>
+     * This is optional, and only possible when the server allows direct access to connections.
+     * Players that are already online are included.
+     *
+     * @return {@link Boolean} value of weather pipeline injection was enabled.
+     */
+    public boolean enablePipelineInjection() {
+        if (!(this.transport instanceof LCNettyTransport)) {
+            return false;
+        }
+        if (this.pipelineInjector != null) {
+            return true;
+        }
+
+        this.pipelineInjector = new LCPipelineInjector(this, (LCNettyTransport) this.transport);
+        this.getServer().getPluginManager().registerEvents(this.pipelineInjector, this);
+        for (Player player : this.getServer().getOnlinePlayers()) {
+            this.pipelineInjector.inject(player);
+        }
+        return true;
+    }
+
+    /**
+     * Subscribe a handler to a single type of packet sent by Lunar Client players.
+     * <p>
+     * Unlike listening to {@link LCPacketReceivedEvent}, the handler is only called
+     * for the packet type it subscribed to (or its subclasses, when subscribing to a superclass
+     * or interface), and any number of plugins can subscribe without replacing the net handler
+     * set with {@link #setNetHandlerServer(LCNetHandlerServer)}. The event is only created
+     * while something listens to it. Handlers are removed when their plugin is disabled.
+     *
+     * @param plugin      The plugin that owns the handler.
+     * @param packetClass The class of the packets to handle.
+     * @param mode        Weather the handler is called on the main thread or asynchronously.
+     * @param handler     The handler for the packets.
+     * @param <T>         The type of packet handled.
+     */
+    public <T extends LCPacket> void onPacket(Plugin plugin, Class<T> packetClass, LCExecutionMode mode, LCPacketHandler<? super T> handler) {
+        this.packetDispatcher.subscribe(plugin, packetClass, mode, handler);
+    }
+
+    /**
+     * Subscribe a handler, called on the main thread, to a single type of packet sent by Lunar Client players.
+     *
+     * @param plugin      The plugin that owns the handler.
+     * @param packetClass The class of the packets to handle.
+     * @param handler     The handler for the packets.
+     * @param <T>         The type of packet handled.
+     * @see #onPacket(Plugin, Class, LCExecutionMode, LCPacketHandler)
+     */
+    public <T extends LCPacket> void onPacket(Plugin plugin, Class<T> packetClass, LCPacketHandler<? super T> handler) {
+        this.onPacket(plugin, packetClass, LCExecutionMode.SYNC, handler);
     }
 
     /**
@@ -80,7 +396,12 @@ public final class LunarClientAPI extends JavaPlugin implements Listener {
      */
     public void failPlayerRegister(final Player player) {
         this.playersNotRegistered.add(player.getUniqueId());
-        this.packetQueue.remove(player.getUniqueId());
+        final List<LCPacket> dropped = this.packetQueue.remove(player.getUniqueId());
+
+        final LCFlightRecorder flightRecorder = this.flightRecorder;
+        if (flightRecorder != null) {
+            flightRecorder.registerFailed(player, dropped == null ? 0 : dropped.size());
+        }
     }
 
     /**
@@ -95,13 +416,20 @@ public final class LunarClientAPI extends JavaPlugin implements Listener {
     public void registerPlayer(final Player player) {
         this.playersNotRegistered.remove(player.getUniqueId());
         this.playersRunningLunarClient.add(player.getUniqueId());
-        if (this.packetQueue.containsKey(player.getUniqueId())) {
-            for (LCPacket packet : packetQueue.get(player.getUniqueId())) {
-                this.sendPacket(player, packet);
+        final List<LCPacket> queued = this.packetQueue.remove(player.getUniqueId());
+        if (queued != null) {
+            final LCFlightRecorder flightRecorder = this.flightRecorder;
+            final long start = flightRecorder == null ? 0L : System.nanoTime();
+            this.sendPackets(player, queued);
+            if (flightRecorder != null) {
+                flightRecorder.queueFlushed(player, queued.size(), System.nanoTime() - start);
             }
-
-            this.packetQueue.remove(player.getUniqueId());
         }
+
+        // Staff modules set before the player registered (or before they re-registered)
+        // were only remembered, so send them now.
+        final int staffModules = this.staffModuleTracker.getState(player.getUniqueId());
+        this.sendStaffModules(player, staffModules, staffModules);
     }
 
     /**
@@ -118,8 +446,16 @@ public final class LunarClientAPI extends JavaPlugin implements Listener {
      */
     public void unregisterPlayer(final Player player, boolean quit) {
         this.playersRunningLunarClient.remove(player.getUniqueId());
+        this.fragmenter.clear(player);
         if (quit) {
             this.playersNotRegistered.remove(player.getUniqueId());
+            this.titleScheduler.clear(player);
+            this.hologramAnimator.clear(player);
+            this.waypointTracker.clear(player);
+            this.loadGovernor.clear(player);
+            this.spectatorMirror.clear(player);
+            this.staffModuleTracker.clear(player.getUniqueId());
+            this.transport.clear(player);
         } else {
             this.playersNotRegistered.add(player.getUniqueId());
             this.getServer().getPluginManager().callEvent(new LCPlayerUnregisterEvent(player));
@@ -161,13 +497,18 @@ public final class LunarClientAPI extends JavaPlugin implements Listener {
     /**
      * Force set a specific {@link StaffModule} for a specific player.
      * Useful for enabling only a few {@link StaffModule}
+     * <p>
+     * Nothing is sent if the module is already in that state. If the player hasn't
+     * registered yet, the state is remembered and sent once they do.
      *
      * @param player The player receiving the staff modules.
      * @param module The staff module to set to a state.
      * @param state  The new state of the StaffModule.
      */
     public void setStaffModuleState(final Player player, StaffModule module, boolean state) {
-        this.sendPacket(player, new LCPacketStaffModState(module.name(), state));
+        final int current = this.staffModuleTracker.getState(player.getUniqueId());
+        final int bit = LCStaffModuleTracker.bit(module);
+        this.setStaffModuleStates(player, state ? current | bit : current & ~bit);
     }
 
     /**
@@ -177,9 +518,7 @@ public final class LunarClientAPI extends JavaPlugin implements Listener {
      * @param player The player to receive the enabled staff modules.
      */
     public void giveAllStaffModules(final Player player) {
-        for (StaffModule module : StaffModule.values()) {
-            this.setStaffModuleState(player, module, true);
-        }
+        this.setStaffModuleStates(player, LCStaffModuleTracker.ALL_MODULES);
     }
 
     /**
@@ -189,21 +528,82 @@ public final class LunarClientAPI extends JavaPlugin implements Listener {
      * @param player The player receiving the new staff module state.
      */
     public void disableAllStaffModules(final Player player) {
+        // Every module is sent, even if the server already thinks they are all off.
+        this.staffModuleTracker.update(player.getUniqueId(), 0);
+        if (isRunningLunarClient(player)) {
+            this.sendStaffModules(player, LCStaffModuleTracker.ALL_MODULES, 0);
+        }
+    }
+
+    /**
+     * Checks if a player has a {@link StaffModule} enabled.
+     *
+     * @param player The player to check.
+     * @param module The staff module to check.
+     * @return {@link Boolean} value of weather the module is enabled for the player.
+     */
+    public boolean hasStaffModule(final Player player, StaffModule module) {
+        return this.staffModuleTracker.isEnabled(player.getUniqueId(), module);
+    }
+
+    /**
+     * Gets every player with a {@link StaffModule} enabled, for example every staff member using XRAY.
+     *
+     * @param module The staff module.
+     * @return An unmodifiable live view of the unique ids of the players with the module enabled.
+     */
+    public Set<UUID> getPlayersWithStaffModule(StaffModule module) {
+        return this.staffModuleTracker.getPlayersWithModule(module);
+    }
+
+    /**
+     * Replace every staff module state of a player at once,
+     * only sending packets for the modules that changed.
+     *
+     * @param player The player receiving the new staff module states.
+     * @param state  A bitmask of the enabled modules, see {@link LCStaffModuleTracker#bit(StaffModule)}.
+     */
+    private void setStaffModuleStates(final Player player, int state) {
+        final int changed = this.staffModuleTracker.update(player.getUniqueId(), state);
+        if (changed != 0 && isRunningLunarClient(player)) {
+            this.sendStaffModules(player, changed, state);
+        }
+    }
+
+    /**
+     * Send the state of the modules selected by a bitmask.
+     *
+     * @param player   The player receiving the staff module states.
+     * @param selected A bitmask of the modules to send.
+     * @param state    A bitmask of the enabled modules.
+     */
+    private void sendStaffModules(final Player player, int selected, int state) {
+        if (selected == 0) {
+            return;
+        }
+
+        final List<LCPacket> packets = new ArrayList<>();
         for (StaffModule module : StaffModule.values()) {
-            this.setStaffModuleState(player, module, false);
+            final int bit = LCStaffModuleTracker.bit(module);
+            if ((selected & bit) != 0) {
+                packets.add(new LCPacketStaffModState(module.name(), (state & bit) != 0));
+            }
         }
+        this.sendPackets(player, packets);
     }
 
     /**
      * Sends a validated teammate object to the player.
      * Tells the player of all its known team mates, ensure they're both online and in the world.
+     * <p>
+     * While the server is lagging the {@link LCLoadGovernor} may hold this back, only the latest teammates are sent.
      *
      * @param player The player to receive the team mates
      * @param packet The teammates to send to the player.
      */
     public void sendTeammates(Player player, LCPacketTeammates packet) {
         this.validatePlayers(player, packet);
-        this.sendPacket(player, packet);
+        this.loadGovernor.send(LCTrafficCategory.TEAMMATES, player, null, packet);
     }
 
     /**
@@ -234,18 +634,48 @@ public final class LunarClientAPI extends JavaPlugin implements Listener {
      * @param lines    The lines of the hologram to be sent to the player.
      */
     public void addHologram(Player player, UUID id, Vector position, String[] lines) {
+        this.loadGovernor.cancel(LCTrafficCategory.HOLOGRAM, player, id);
         this.sendPacket(player, new LCPacketHologram(id, position.getX(), position.getY(), position.getZ(), Arrays.asList(lines)));
     }
 
     /**
      * Update the lines of a previously added hologram for a specific player.
+     * <p>
+     * While the server is lagging the {@link LCLoadGovernor} may hold this back, only the latest lines are sent.
      *
      * @param player The observer of the new hologram lines.
      * @param id     The ID of the previously placed hologram.
      * @param lines  The new lines to show to the player.
      */
     public void updateHologram(Player player, UUID id, String[] lines) {
-        this.sendPacket(player, new LCPacketHologramUpdate(id, Arrays.asList(lines)));
+        this.loadGovernor.send(LCTrafficCategory.HOLOGRAM, player, id, new LCPacketHologramUpdate(id, Arrays.asList(lines)));
+    }
+
+    /**
+     * Create a hologram for a player from a template.
+     *
+     * @param player   The observer of the new hologram.
+     * @param id       The randomly generated UUID for the hologram. This will need to be saved for other hologram actions.
+     * @param position The location (x, y, z) of where the hologram will be placed in the world.
+     * @param lines    The values of the template to render the lines from.
+     */
+    public void addHologram(Player player, UUID id, Vector position, LCTemplateBinding lines) {
+        this.loadGovernor.cancel(LCTrafficCategory.HOLOGRAM, player, id);
+        this.sendPacket(player, new LCPacketHologram(id, position.getX(), position.getY(), position.getZ(), lines.getLines()));
+    }
+
+    /**
+     * Update the lines of a previously added hologram from a template.
+     * <p>
+     * Only the lines whose values changed are rendered again, and the packet is
+     * encoded once for every viewer that sees the same lines.
+     *
+     * @param player The observer of the new hologram lines.
+     * @param id     The ID of the previously placed hologram.
+     * @param lines  The values of the template to render the lines from.
+     */
+    public void updateHologram(Player player, UUID id, LCTemplateBinding lines) {
+        this.loadGovernor.send(LCTrafficCategory.HOLOGRAM, player, id, lines.encodeHologramUpdate(id));
     }
 
     /**
@@ -255,19 +685,36 @@ public final class LunarClientAPI extends JavaPlugin implements Listener {
      * @param id     The ID of the previously created hologram.
      */
     public void removeHologram(Player player, UUID id) {
+        this.loadGovernor.cancel(LCTrafficCategory.HOLOGRAM, player, id);
         this.sendPacket(player, new LCPacketHologramRemove(id));
     }
 
     /**
      * Override the normal (bukkit) nametag with lunar client nametags.
      * This supports multiple lines, so index 0 will be bottom of the nametags.
+     * <p>
+     * While the server is lagging the {@link LCLoadGovernor} may hold this back, only the latest nametag is sent.
      *
      * @param target  The player whos nametag will be affected for the viewer.
      * @param nametag The list of nametags that will be sent to the viewer. Supports color codes.
      * @param viewer  The observer who will see the targets nametag as a lunar client nametag.
      */
     public void overrideNametag(Player target, List<String> nametag, Player viewer) {
-        this.sendPacket(viewer, new LCPacketNametagsOverride(target.getUniqueId(), nametag));
+        this.loadGovernor.send(LCTrafficCategory.NAMETAG, viewer, target.getUniqueId(), new LCPacketNametagsOverride(target.getUniqueId(), nametag));
+    }
+
+    /**
+     * Override the normal (bukkit) nametag with lunar client nametags rendered from a template.
+     * <p>
+     * Only the lines whose values changed are rendered again, and the packet is
+     * encoded once for every viewer that sees the same lines.
+     *
+     * @param target  The player whos nametag will be affected for the viewer.
+     * @param nametag The values of the template to render the nametag from, index 0 will be the bottom line.
+     * @param viewer  The observer who will see the targets nametag as a lunar client nametag.
+     */
+    public void overrideNametag(Player target, LCTemplateBinding nametag, Player viewer) {
+        this.loadGovernor.send(LCTrafficCategory.NAMETAG, viewer, target.getUniqueId(), nametag.encodeNametag(target.getUniqueId()));
     }
 
     /**
@@ -279,6 +726,7 @@ public final class LunarClientAPI extends JavaPlugin implements Listener {
      * @param viewer The observer who will see the targets nametag as normal (bukkit).
      */
     public void resetNametag(Player target, Player viewer) {
+        this.loadGovernor.cancel(LCTrafficCategory.NAMETAG, viewer, target.getUniqueId());
         this.sendPacket(viewer, new LCPacketNametagsOverride(target.getUniqueId(), null));
     }
 
@@ -289,6 +737,7 @@ public final class LunarClientAPI extends JavaPlugin implements Listener {
      * @param viewer The observer who will hide the targets nametag.
      */
     public void hideNametag(Player target, Player viewer) {
+        this.loadGovernor.cancel(LCTrafficCategory.NAMETAG, viewer, target.getUniqueId());
         this.sendPacket(viewer, new LCPacketNametagsOverride(target.getUniqueId(), Collections.emptyList()));
     }
 
@@ -301,10 +750,14 @@ public final class LunarClientAPI extends JavaPlugin implements Listener {
      */
     public String getWorldIdentifier(World world) {
         final UUID worldIdentifier = world.getUID();
+        final Function<World, String> identifier = this.worldIdentifiers.get(worldIdentifier);
+        if (identifier != null) {
+            return identifier.apply(world);
+        }
 
-        return this.worldIdentifiers.containsKey(worldIdentifier)
-                ? this.worldIdentifiers.get(worldIdentifier).apply(world)
-                : worldIdentifier.toString();
+        final LCCompiledBundle bundle = this.featureBundle;
+        final String bundleIdentifier = bundle == null ? null : bundle.getWorldIdentifier(world.getName());
+        return bundleIdentifier != null ? bundleIdentifier : worldIdentifier.toString();
     }
 
     /**
@@ -319,6 +772,39 @@ public final class LunarClientAPI extends JavaPlugin implements Listener {
         this.worldIdentifiers.put(world.getUID(), identifier);
     }
 
+    /**
+     * Checks if a custom name was registered for a world.
+     *
+     * @param world The bukkit object for the world.
+     * @return {@link Boolean} value of weather a custom identifier is registered for the world.
+     */
+    public boolean hasWorldIdentifier(World world) {
+        return this.worldIdentifiers.containsKey(world.getUID());
+    }
+
+    /**
+     * Restore the encoded update packet of a world identifier from a previous run,
+     * so it isn't encoded again once a world is given that identifier.
+     * <p>
+     * Nothing happens if the identifier was already encoded.
+     *
+     * @param identifier    The name of the world on the client.
+     * @param encodedUpdate The {@link LCPacketUpdateWorld} for that name as it was encoded before.
+     */
+    public void restoreWorldUpdate(String identifier, byte[] encodedUpdate) {
+        this.worldUpdates.putIfAbsent(identifier, new LCEncodedPacket(new LCPacketUpdateWorld(identifier), encodedUpdate));
+    }
+
+    /**
+     * Get the packet telling a client which world it is in, encoded once per world identifier.
+     *
+     * @param world The world the player is in.
+     * @return The encoded {@link LCPacketUpdateWorld} for the identifier of the world.
+     */
+    public LCEncodedPacket getWorldUpdate(World world) {
+        return this.worldUpdates.computeIfAbsent(this.getWorldIdentifier(world), identifier -> new LCEncodedPacket(new LCPacketUpdateWorld(identifier)));
+    }
+
     /**
      * Send a waypoint to a lunarclient player.
      * <p>
@@ -356,12 +842,138 @@ public final class LunarClientAPI extends JavaPlugin implements Listener {
      * @return {@link Boolean} value of weather the packet was sent.
      */
     public boolean sendPacket(final Player player, LCPacket packet) {
-        UUID playerId = player.getUniqueId();
-        if (isRunningLunarClient(playerId)) {
-            player.sendPluginMessage(this, MESSAGE_CHANNEL, LCPacket.getPacketData(packet));
-            Bukkit.getPluginManager().callEvent(new LCPacketSentEvent(player, packet));
-            return true;
+        if (isRunningLunarClient(player.getUniqueId())) {
+            final ByteBuf data = this.encode(player, packet);
+            this.spectatorMirror.sent(player, packet, data);
+            return this.writePacket(player, packet, data);
         }
+        this.queuePacket(player, packet);
+        return false;
+    }
+
+    /**
+     * Send a packet that has already been encoded to a Lunar Client player.
+     * <p>
+     * This behaves exactly like {@link #sendPacket(Player, LCPacket)}, but the same
+     * {@link LCEncodedPacket} can be sent to any number of players while only being encoded once.
+     *
+     * @param player The bukkit representation of the {@link Player} to receive the packet.
+     * @param packet The encoded Lunar Client packet that should be sent to the Lunar Client player.
+     * @return {@link Boolean} value of weather the packet was sent.
+     */
+    public boolean sendPacket(final Player player, LCEncodedPacket packet) {
+        if (!isRunningLunarClient(player.getUniqueId())) {
+            this.queuePacket(player, packet.getPacket());
+            return false;
+        }
+
+        this.recordSent(player, packet);
+        this.spectatorMirror.sent(player, packet);
+        return this.writePacket(player, packet.getPacket(), Unpooled.wrappedBuffer(packet.getData()));
+    }
+
+    /**
+     * Send many packets to a Lunar Client player at once.
+     * <p>
+     * This behaves like calling {@link #sendPacket(Player, LCPacket)} for each packet,
+     * but clients that support it will receive them in as few plugin messages as possible.
+     * This is ideal for syncing a lot of state at once, like on join.
+     *
+     * @param player  The bukkit representation of the {@link Player} to receive the packets.
+     * @param packets The Lunar Client packets, in the order they should be handled.
+     * @return {@link Boolean} value of weather the packets were sent.
+     */
+    public boolean sendPackets(final Player player, Collection<? extends LCPacket> packets) {
+        if (!isRunningLunarClient(player)) {
+            for (LCPacket packet : packets) {
+                this.queuePacket(player, packet);
+            }
+            return false;
+        }
+
+        final List<LCPacket> sent = new ArrayList<>(packets.size());
+        final List<ByteBuf> data = new ArrayList<>(packets.size());
+        for (LCPacket packet : packets) {
+            final ByteBuf encoded = this.encode(player, packet);
+            this.spectatorMirror.sent(player, packet, encoded);
+            sent.add(packet);
+            data.add(encoded);
+        }
+        this.writePackets(player, sent, data);
+        return true;
+    }
+
+    /**
+     * Send many packets that have already been encoded to a Lunar Client player at once.
+     *
+     * @param player  The bukkit representation of the {@link Player} to receive the packets.
+     * @param packets The encoded Lunar Client packets, in the order they should be handled.
+     * @return {@link Boolean} value of weather the packets were sent.
+     * @see #sendPackets(Player, Collection)
+     */
+    public boolean sendEncodedPackets(final Player player, List<LCEncodedPacket> packets) {
+        if (!isRunningLunarClient(player)) {
+            for (LCEncodedPacket packet : packets) {
+                this.queuePacket(player, packet.getPacket());
+            }
+            return false;
+        }
+
+        final List<LCPacket> sent = new ArrayList<>(packets.size());
+        final List<ByteBuf> data = new ArrayList<>(packets.size());
+        for (LCEncodedPacket packet : packets) {
+            sent.add(packet.getPacket());
+            data.add(Unpooled.wrappedBuffer(packet.getData()));
+            this.recordSent(player, packet);
+            this.spectatorMirror.sent(player, packet);
+        }
+        this.writePackets(player, sent, data);
+        return true;
+    }
+
+    /**
+     * Write a single encoded packet to a registered player.
+     *
+     * @param player The player to receive the packet.
+     * @param packet The packet that was encoded.
+     * @param data   The encoded packet, ownership passes to the transport.
+     * @return {@link Boolean} value of weather the packet was sent.
+     */
+    private boolean writePacket(final Player player, LCPacket packet, ByteBuf data) {
+        this.record(LCPacketDirection.OUTBOUND, player, data);
+        if (!this.fragmenter.send(player, data)) {
+            return false;
+        }
+        Bukkit.getPluginManager().callEvent(new LCPacketSentEvent(player, packet));
+        return true;
+    }
+
+    /**
+     * Write many encoded packets to a registered player at once.
+     *
+     * @param player  The player to receive the packets.
+     * @param packets The packets that were encoded.
+     * @param data    The encoded packets, in the same order. Ownership passes to the transport.
+     */
+    private void writePackets(final Player player, List<LCPacket> packets, List<ByteBuf> data) {
+        for (ByteBuf buf : data) {
+            this.record(LCPacketDirection.OUTBOUND, player, buf);
+        }
+        // Packets the fragmenter refused to send (too large for the client) don't fire the event.
+        final BitSet sent = this.fragmenter.sendAll(player, data);
+        for (int i = sent.nextSetBit(0); i >= 0; i = sent.nextSetBit(i + 1)) {
+            Bukkit.getPluginManager().callEvent(new LCPacketSentEvent(player, packets.get(i)));
+        }
+    }
+
+    /**
+     * Hold on to a packet for a player that hasn't registered yet.
+     *
+     * @param player The player the packet was meant for.
+     * @param packet The packet that could not be sent.
+     */
+    private void queuePacket(final Player player, LCPacket packet) {
+        final UUID playerId = player.getUniqueId();
 
         // If the player hasn't been on for 2 seconds, but also
         // hasn't registered we hold on to hope they are just lagging
@@ -369,13 +981,65 @@ public final class LunarClientAPI extends JavaPlugin implements Listener {
         // lunar client players.
         // Either way, the packet failed to send (this time).
 
-        if (!playersNotRegistered.contains(playerId)) {
-            if (!packetQueue.containsKey(playerId)) {
-                packetQueue.put(playerId, new ArrayList<>());
-            }
-            packetQueue.get(playerId).add(packet);
+        final boolean queued = !playersNotRegistered.contains(playerId);
+        if (queued) {
+            packetQueue.compute(playerId, (id, queue) -> {
+                final List<LCPacket> updated = queue == null ? new ArrayList<>() : queue;
+                updated.add(packet);
+                return updated;
+            });
+        }
+
+        final LCFlightRecorder flightRecorder = this.flightRecorder;
+        if (flightRecorder != null) {
+            flightRecorder.packetQueued(player, packet, queued);
+        }
+    }
+
+    /**
+     * Encode a packet for a player, timing it if a {@link LCFlightRecorder} is set.
+     *
+     * @param player The player to receive the packet.
+     * @param packet The packet to encode.
+     * @return The encoded packet.
+     */
+    private ByteBuf encode(final Player player, LCPacket packet) {
+        final LCFlightRecorder flightRecorder = this.flightRecorder;
+        if (flightRecorder == null) {
+            return this.transport.encode(player, packet);
+        }
+
+        final long start = System.nanoTime();
+        final ByteBuf data = this.transport.encode(player, packet);
+        flightRecorder.packetSent(player, packet, data.readableBytes(), System.nanoTime() - start);
+        return data;
+    }
+
+    /**
+     * Record a packet that was encoded before being sent, if a {@link LCFlightRecorder} is set.
+     *
+     * @param player The player to receive the packet.
+     * @param packet The encoded packet.
+     */
+    private void recordSent(final Player player, LCEncodedPacket packet) {
+        final LCFlightRecorder flightRecorder = this.flightRecorder;
+        if (flightRecorder != null) {
+            flightRecorder.packetSent(player, packet.getPacket(), packet.getData().length, 0L);
+        }
+    }
+
+    /**
+     * Append a packet to the packet recording, if one is set.
+     *
+     * @param direction Which way the packet was travelling.
+     * @param player    The player that sent or received the packet.
+     * @param data      The encoded packet.
+     */
+    private void record(LCPacketDirection direction, Player player, ByteBuf data) {
+        final LCPacketRecorder recorder = this.packetRecorder;
+        if (recorder != null) {
+            recorder.record(direction, player.getUniqueId(), data);
         }
-        return false;
     }
 
 }
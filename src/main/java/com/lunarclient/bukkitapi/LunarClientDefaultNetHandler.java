@@ -8,6 +8,8 @@ import com.lunarclient.bukkitapi.nethandler.server.LCPacketStaffModStatus;
 import com.lunarclient.bukkitapi.nethandler.shared.LCPacketEmoteBroadcast;
 import com.lunarclient.bukkitapi.nethandler.shared.LCPacketWaypointAdd;
 import com.lunarclient.bukkitapi.nethandler.shared.LCPacketWaypointRemove;
+import com.lunarclient.bukkitapi.staff.LCStaffModuleTracker;
+import org.bukkit.entity.Player;
 
 /**
  * An empty implementation of the server nethandler.
@@ -15,14 +17,22 @@ import com.lunarclient.bukkitapi.nethandler.shared.LCPacketWaypointRemove;
 public class LunarClientDefaultNetHandler implements LCNetHandlerServer {
 
     /**
-     * Called when a player changes their staff mode state.
-     * Not currently implemented.
+     * Called when a player reports their staff mode state.
+     * The reported modules replace the state the server remembers for the player,
+     * if you override this, call super to keep that state in sync.
      *
      * @param lcPacketStaffModStatus All the status of the players staff mode.
      */
     @Override
     public void handleStaffModStatus(LCPacketStaffModStatus lcPacketStaffModStatus) {
-
+        final Player player = lcPacketStaffModStatus.getAttachment();
+        // There's no API instance when packets are handled outside the plugin, like by the offline replayer.
+        final LunarClientAPI lunarClientAPI = LunarClientAPI.getInstance();
+        if (player == null || lunarClientAPI == null) {
+            return;
+        }
+        final int state = LCStaffModuleTracker.fromNames(lcPacketStaffModStatus.getEnabled());
+        lunarClientAPI.getStaffModuleTracker().update(player.getUniqueId(), state);
     }
 
     /**
@@ -0,0 +1,187 @@
+package com.lunarclient.bukkitapi.audience;
+
+import com.lunarclient.bukkitapi.LCEncodedPacket;
+import com.lunarclient.bukkitapi.LunarClientAPI;
+import com.lunarclient.bukkitapi.nethandler.LCPacket;
+import lombok.Getter;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * A group of registered Lunar Client players that is kept up to date as players
+ * join, leave, and trigger the events the group depends on.
+ * <p>
+ * Members are kept in an array that is only copied when the membership changes,
+ * so sending to the group is a loop over its members, without filtering
+ * or allocating anything per player. Packets are encoded once per send.
+ * <p>
+ * Create audiences with {@link LCAudienceManager}.
+ */
+public final class LCAudience {
+
+    private static final Player[] NO_MEMBERS = new Player[0];
+
+    @Getter
+    private final Plugin plugin;
+    private final Predicate<Player> filter;
+    private final Set<LCAudienceTrigger> triggers;
+    private final LCAudienceManager manager;
+    private volatile Player[] members = NO_MEMBERS;
+
+    LCAudience(Plugin plugin, Predicate<Player> filter, Set<LCAudienceTrigger> triggers, LCAudienceManager manager) {
+        this.plugin = plugin;
+        this.filter = filter;
+        this.triggers = triggers;
+        this.manager = manager;
+    }
+
+    /**
+     * Send a packet to every member, encoding it only once.
+     *
+     * @param packet The packet to send.
+     * @return The encoded packet, to send again later if needed.
+     */
+    public LCEncodedPacket send(LCPacket packet) {
+        final LCEncodedPacket encoded = new LCEncodedPacket(packet);
+        this.send(encoded);
+        return encoded;
+    }
+
+    /**
+     * Send a packet that was already encoded to every member.
+     *
+     * @param packet The encoded packet to send.
+     */
+    public void send(LCEncodedPacket packet) {
+        final LunarClientAPI lunarClientAPI = LunarClientAPI.getInstance();
+        for (Player member : members) {
+            lunarClientAPI.sendPacket(member, packet);
+        }
+    }
+
+    /**
+     * Send packets that were already encoded to every member, as one write per member.
+     *
+     * @param packets The encoded packets, in the order they should be handled.
+     */
+    public void sendAll(List<LCEncodedPacket> packets) {
+        final LunarClientAPI lunarClientAPI = LunarClientAPI.getInstance();
+        for (Player member : members) {
+            lunarClientAPI.sendEncodedPackets(member, packets);
+        }
+    }
+
+    /**
+     * Run an action for every member.
+     *
+     * @param action The action to run.
+     */
+    public void forEach(Consumer<? super Player> action) {
+        for (Player member : members) {
+            action.accept(member);
+        }
+    }
+
+    /**
+     * Get the current members.
+     *
+     * @return An unmodifiable list of the members at the time of calling.
+     */
+    public List<Player> getMembers() {
+        return Collections.unmodifiableList(Arrays.asList(members));
+    }
+
+    /**
+     * Get the amount of members.
+     *
+     * @return The current amount of members.
+     */
+    public int size() {
+        return members.length;
+    }
+
+    /**
+     * Checks if a player is a member.
+     *
+     * @param player The player.
+     * @return {@link Boolean} value of weather the player is a member.
+     */
+    public boolean contains(Player player) {
+        return indexOf(members, player) >= 0;
+    }
+
+    /**
+     * Check again if a player belongs in the audience, after something the
+     * filter depends on changed outside of the {@link LCAudienceTrigger triggers}.
+     *
+     * @param player The player to check.
+     */
+    public void refresh(Player player) {
+        if (player.isOnline() && LunarClientAPI.getInstance().isRunningLunarClient(player) && filter.test(player)) {
+            this.add(player);
+        } else {
+            this.remove(player);
+        }
+    }
+
+    /**
+     * Check again every online player.
+     */
+    public void refresh() {
+        for (Player player : LunarClientAPI.getInstance().getServer().getOnlinePlayers()) {
+            this.refresh(player);
+        }
+    }
+
+    /**
+     * Stop maintaining the audience, it will have no members from now on.
+     */
+    public void close() {
+        this.manager.remove(this);
+        synchronized (this) {
+            this.members = NO_MEMBERS;
+        }
+    }
+
+    boolean isTriggeredBy(LCAudienceTrigger trigger) {
+        return triggers.contains(trigger);
+    }
+
+    synchronized void add(Player player) {
+        final Player[] current = members;
+        if (indexOf(current, player) >= 0) {
+            return;
+        }
+        final Player[] updated = Arrays.copyOf(current, current.length + 1);
+        updated[current.length] = player;
+        this.members = updated;
+    }
+
+    synchronized void remove(Player player) {
+        final Player[] current = members;
+        final int index = indexOf(current, player);
+        if (index < 0) {
+            return;
+        }
+        final Player[] updated = new Player[current.length - 1];
+        System.arraycopy(current, 0, updated, 0, index);
+        System.arraycopy(current, index + 1, updated, index, updated.length - index);
+        this.members = updated;
+    }
+
+    private static int indexOf(Player[] players, Player player) {
+        for (int i = 0; i < players.length; i++) {
+            if (players[i].getUniqueId().equals(player.getUniqueId())) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
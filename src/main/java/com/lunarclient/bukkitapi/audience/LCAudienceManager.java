@@ -0,0 +1,160 @@
+package com.lunarclient.bukkitapi.audience;
+
+import com.lunarclient.bukkitapi.LunarClientAPI;
+import com.lunarclient.bukkitapi.event.LCPlayerRegisterEvent;
+import com.lunarclient.bukkitapi.event.LCPlayerUnregisterEvent;
+import lombok.RequiredArgsConstructor;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.bukkit.event.player.PlayerGameModeChangeEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.server.PluginDisableEvent;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scoreboard.Team;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Predicate;
+
+/**
+ * Creates {@link LCAudience audiences} and keeps their members up to date.
+ * <p>
+ * An audience is only checked on the events it depends on, so a player changing world
+ * doesn't check audiences based on teams, and the check is a single call to its filter.
+ * Audiences are closed automatically when their plugin is disabled.
+ */
+@RequiredArgsConstructor
+public final class LCAudienceManager implements Listener {
+
+    private final LunarClientAPI lunarClientAPI;
+    private final List<LCAudience> audiences = new CopyOnWriteArrayList<>();
+
+    /**
+     * Create an audience of the registered players matching a filter.
+     *
+     * @param plugin   The plugin that owns the audience.
+     * @param filter   Checks if a registered player belongs in the audience.
+     * @param triggers The events after which players are checked again.
+     * @return The audience, already containing every matching player.
+     */
+    public LCAudience create(Plugin plugin, Predicate<Player> filter, LCAudienceTrigger... triggers) {
+        final EnumSet<LCAudienceTrigger> triggerSet = EnumSet.noneOf(LCAudienceTrigger.class);
+        triggerSet.addAll(Arrays.asList(triggers));
+
+        final LCAudience audience = new LCAudience(plugin, filter, triggerSet, this);
+        this.audiences.add(audience);
+        audience.refresh();
+        return audience;
+    }
+
+    /**
+     * Create an audience of every registered player.
+     *
+     * @param plugin The plugin that owns the audience.
+     * @return The audience.
+     */
+    public LCAudience all(Plugin plugin) {
+        return this.create(plugin, player -> true);
+    }
+
+    /**
+     * Create an audience of the registered players in a world.
+     *
+     * @param plugin The plugin that owns the audience.
+     * @param world  The world.
+     * @return The audience.
+     */
+    public LCAudience world(Plugin plugin, World world) {
+        final UUID worldId = world.getUID();
+        return this.create(plugin, player -> player.getWorld().getUID().equals(worldId), LCAudienceTrigger.WORLD_CHANGE);
+    }
+
+    /**
+     * Create an audience of the registered players with a permission.
+     * <p>
+     * Permissions are checked when a player registers or changes world, call
+     * {@link LCAudience#refresh(Player)} when a permission changes at any other time.
+     *
+     * @param plugin     The plugin that owns the audience.
+     * @param permission The permission.
+     * @return The audience.
+     */
+    public LCAudience permission(Plugin plugin, String permission) {
+        return this.create(plugin, player -> player.hasPermission(permission), LCAudienceTrigger.WORLD_CHANGE);
+    }
+
+    /**
+     * Create an audience of the registered players on a scoreboard team.
+     * <p>
+     * Bukkit has no events for teams, call {@link LCAudience#refresh(Player)}
+     * when adding or removing a player from the team.
+     *
+     * @param plugin The plugin that owns the audience.
+     * @param team   The team.
+     * @return The audience.
+     */
+    public LCAudience team(Plugin plugin, Team team) {
+        return this.create(plugin, player -> team.hasEntry(player.getName()));
+    }
+
+    void remove(LCAudience audience) {
+        this.audiences.remove(audience);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onRegister(LCPlayerRegisterEvent event) {
+        for (LCAudience audience : audiences) {
+            audience.refresh(event.getPlayer());
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onUnregister(LCPlayerUnregisterEvent event) {
+        for (LCAudience audience : audiences) {
+            audience.remove(event.getPlayer());
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        for (LCAudience audience : audiences) {
+            audience.remove(event.getPlayer());
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onWorldChange(PlayerChangedWorldEvent event) {
+        this.refresh(event.getPlayer(), LCAudienceTrigger.WORLD_CHANGE);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onGameModeChange(PlayerGameModeChangeEvent event) {
+        // The game mode only changes after the event, so check on the next tick.
+        final Player player = event.getPlayer();
+        lunarClientAPI.getScheduler().run(lunarClientAPI, player, () -> this.refresh(player, LCAudienceTrigger.GAME_MODE_CHANGE));
+    }
+
+    @EventHandler
+    public void onPluginDisable(PluginDisableEvent event) {
+        for (LCAudience audience : audiences) {
+            if (audience.getPlugin() == event.getPlugin()) {
+                audience.close();
+            }
+        }
+    }
+
+    private void refresh(Player player, LCAudienceTrigger trigger) {
+        for (LCAudience audience : audiences) {
+            if (audience.isTriggeredBy(trigger)) {
+                audience.refresh(player);
+            }
+        }
+    }
+}
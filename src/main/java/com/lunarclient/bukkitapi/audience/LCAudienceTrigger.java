@@ -0,0 +1,15 @@
+package com.lunarclient.bukkitapi.audience;
+
+/**
+ * Events after which the membership of a {@link LCAudience} is checked again.
+ * <p>
+ * Every audience is checked when a player registers as a Lunar Client user,
+ * anything that changes at other times (teams, permissions) has to be refreshed
+ * with {@link LCAudience#refresh(org.bukkit.entity.Player)}.
+ */
+public enum LCAudienceTrigger {
+
+    WORLD_CHANGE,
+    GAME_MODE_CHANGE
+
+}
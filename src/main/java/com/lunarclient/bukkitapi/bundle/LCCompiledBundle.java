@@ -0,0 +1,71 @@
+package com.lunarclient.bukkitapi.bundle;
+
+import com.lunarclient.bukkitapi.LCEncodedPacket;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A {@link LCFeatureBundle} with every packet encoded, ready to be sent on join.
+ * <p>
+ * The payload for each world is built once, so sending the bundle to a joining player is
+ * a single batched write of bytes that already exist. Compiled bundles never change,
+ * reloading a bundle replaces it with a new one.
+ */
+public final class LCCompiledBundle {
+
+    // Server rules and mod settings, sent in every world.
+    private final List<LCEncodedPacket> shared;
+    // Waypoints by world identifier.
+    private final Map<String, List<LCEncodedPacket>> worldPayloads;
+    private final Map<String, String> worldIdentifiers;
+    // Shared packets followed by the waypoints of the world, by world identifier.
+    private final Map<String, List<LCEncodedPacket>> joinPayloads = new HashMap<>();
+
+    LCCompiledBundle(List<LCEncodedPacket> shared, Map<String, List<LCEncodedPacket>> worldPayloads, Map<String, String> worldIdentifiers) {
+        this.shared = shared;
+        this.worldPayloads = new HashMap<>(worldPayloads);
+        this.worldIdentifiers = new HashMap<>(worldIdentifiers);
+
+        for (Map.Entry<String, List<LCEncodedPacket>> entry : this.worldPayloads.entrySet()) {
+            final List<LCEncodedPacket> payload = new ArrayList<>(shared.size() + entry.getValue().size());
+            payload.addAll(shared);
+            payload.addAll(entry.getValue());
+            this.joinPayloads.put(entry.getKey(), Collections.unmodifiableList(payload));
+        }
+    }
+
+    /**
+     * Get everything a player is sent when they register in a world.
+     *
+     * @param worldIdentifier The identifier of the world the player is in.
+     * @return The encoded packets, in the order they should be sent.
+     */
+    public List<LCEncodedPacket> getJoinPayload(String worldIdentifier) {
+        final List<LCEncodedPacket> payload = joinPayloads.get(worldIdentifier);
+        return payload == null ? shared : payload;
+    }
+
+    /**
+     * Get what a player is sent when they change to a world, the waypoints of that world.
+     *
+     * @param worldIdentifier The identifier of the world the player moved to.
+     * @return The encoded packets, empty if the world has no waypoints.
+     */
+    public List<LCEncodedPacket> getWorldPayload(String worldIdentifier) {
+        return worldPayloads.getOrDefault(worldIdentifier, Collections.emptyList());
+    }
+
+    /**
+     * Get the identifier the bundle sets for a world.
+     *
+     * @param worldName The name of the world on the server.
+     * @return The name of the world on the client, or null if the bundle doesn't set one.
+     */
+    public String getWorldIdentifier(String worldName) {
+        return worldIdentifiers.get(worldName);
+    }
+}
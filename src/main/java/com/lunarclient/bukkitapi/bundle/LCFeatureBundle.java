@@ -0,0 +1,233 @@
+package com.lunarclient.bukkitapi.bundle;
+
+import com.google.common.base.Preconditions;
+import com.lunarclient.bukkitapi.LCEncodedPacket;
+import com.lunarclient.bukkitapi.nethandler.client.LCPacketModSettings;
+import com.lunarclient.bukkitapi.nethandler.client.LCPacketServerRule;
+import com.lunarclient.bukkitapi.nethandler.client.obj.ModSettings;
+import com.lunarclient.bukkitapi.nethandler.client.obj.ServerRule;
+import com.lunarclient.bukkitapi.nethandler.shared.LCPacketWaypointAdd;
+import com.lunarclient.bukkitapi.object.LCWaypoint;
+import org.bukkit.configuration.ConfigurationSection;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Everything a server sends to Lunar Client players when they join, declared once:
+ * server rules, mod settings, world identifiers and default waypoints.
+ * <p>
+ * A bundle is {@link #compile() compiled} into a {@link LCCompiledBundle}, which holds
+ * every packet already encoded, grouped into a single payload per world.
+ * <p>
+ * Bundles can be built in code with {@link #builder()}, or loaded from YAML with {@link #load(ConfigurationSection)}:
+ * <pre>
+ * rules:
+ *   COMPETITIVE_GAME: true
+ * mods:
+ *   Coordinates: false
+ *   textHotKey:
+ *     enabled: true
+ *     properties:
+ *       key: 0
+ * world-identifiers:
+ *   world: lobby
+ * waypoints:
+ *   lobby:             # The identifier of the world.
+ *     Spawn:
+ *       x: 0
+ *       y: 64
+ *       z: 0
+ *       color: 16711680
+ *       forced: true
+ *       visible: true
+ * </pre>
+ */
+public final class LCFeatureBundle {
+
+    private final Map<ServerRule, Boolean> rules;
+    private final Map<String, ModSettings.ModSetting> mods;
+    private final Map<String, String> worldIdentifiers;
+    private final Map<String, List<LCWaypoint>> waypoints;
+
+    private LCFeatureBundle(Builder builder) {
+        this.rules = new EnumMap<>(builder.rules);
+        this.mods = new LinkedHashMap<>(builder.mods);
+        this.worldIdentifiers = new HashMap<>(builder.worldIdentifiers);
+        this.waypoints = new HashMap<>();
+        builder.waypoints.forEach((world, list) -> this.waypoints.put(world, new ArrayList<>(list)));
+    }
+
+    /**
+     * Start building a bundle.
+     *
+     * @return An empty builder.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Read a bundle from a configuration, see the format above.
+     *
+     * @param config The configuration, like a loaded YAML file.
+     * @return The bundle.
+     * @throws IllegalArgumentException If a server rule in the configuration doesn't exist.
+     */
+    public static LCFeatureBundle load(ConfigurationSection config) {
+        final Builder builder = builder();
+
+        final ConfigurationSection rules = config.getConfigurationSection("rules");
+        if (rules != null) {
+            for (String rule : rules.getKeys(false)) {
+                builder.rule(ServerRule.valueOf(rule.toUpperCase()), rules.getBoolean(rule));
+            }
+        }
+
+        final ConfigurationSection mods = config.getConfigurationSection("mods");
+        if (mods != null) {
+            for (String mod : mods.getKeys(false)) {
+                if (mods.isConfigurationSection(mod)) {
+                    final ConfigurationSection section = mods.getConfigurationSection(mod);
+                    final ConfigurationSection properties = section.getConfigurationSection("properties");
+                    builder.mod(mod, new ModSettings.ModSetting(section.getBoolean("enabled", true),
+                            properties == null ? new HashMap<>() : new HashMap<>(properties.getValues(false))));
+                } else {
+                    builder.mod(mod, mods.getBoolean(mod));
+                }
+            }
+        }
+
+        final ConfigurationSection identifiers = config.getConfigurationSection("world-identifiers");
+        if (identifiers != null) {
+            for (String world : identifiers.getKeys(false)) {
+                builder.worldIdentifier(world, identifiers.getString(world));
+            }
+        }
+
+        final ConfigurationSection waypoints = config.getConfigurationSection("waypoints");
+        if (waypoints != null) {
+            for (String world : waypoints.getKeys(false)) {
+                final ConfigurationSection worldSection = waypoints.getConfigurationSection(world);
+                for (String name : worldSection.getKeys(false)) {
+                    final ConfigurationSection waypoint = worldSection.getConfigurationSection(name);
+                    builder.waypoint(new LCWaypoint(name, waypoint.getInt("x"), waypoint.getInt("y"), waypoint.getInt("z"), world,
+                            waypoint.getInt("color", 0xFFFFFF), waypoint.getBoolean("forced", false), waypoint.getBoolean("visible", true)));
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Encode every packet in the bundle.
+     *
+     * @return The compiled bundle, ready to be sent.
+     */
+    public LCCompiledBundle compile() {
+        final List<LCEncodedPacket> shared = new ArrayList<>();
+        rules.forEach((rule, value) -> shared.add(new LCEncodedPacket(new LCPacketServerRule(rule, value))));
+        if (!mods.isEmpty()) {
+            final ModSettings settings = new ModSettings();
+            mods.forEach(settings::addModSetting);
+            shared.add(new LCEncodedPacket(new LCPacketModSettings(settings)));
+        }
+
+        final Map<String, List<LCEncodedPacket>> worldPayloads = new HashMap<>();
+        waypoints.forEach((world, list) -> {
+            final List<LCEncodedPacket> packets = new ArrayList<>(list.size());
+            for (LCWaypoint waypoint : list) {
+                packets.add(new LCEncodedPacket(new LCPacketWaypointAdd(waypoint.getName(), waypoint.getWorld(), waypoint.getColor(),
+                        waypoint.getX(), waypoint.getY(), waypoint.getZ(), waypoint.isForced(), waypoint.isVisible())));
+            }
+            worldPayloads.put(world, Collections.unmodifiableList(packets));
+        });
+        return new LCCompiledBundle(Collections.unmodifiableList(shared), worldPayloads, worldIdentifiers);
+    }
+
+    /**
+     * Builds a {@link LCFeatureBundle}.
+     */
+    public static final class Builder {
+
+        private final Map<ServerRule, Boolean> rules = new EnumMap<>(ServerRule.class);
+        private final Map<String, ModSettings.ModSetting> mods = new LinkedHashMap<>();
+        private final Map<String, String> worldIdentifiers = new HashMap<>();
+        private final Map<String, List<LCWaypoint>> waypoints = new HashMap<>();
+
+        private Builder() {
+        }
+
+        /**
+         * Set a server rule.
+         *
+         * @param rule  The ServerRule with type of boolean.
+         * @param value The value of the ServerRule.
+         * @return This builder.
+         */
+        public Builder rule(ServerRule rule, boolean value) {
+            this.rules.put(rule, value);
+            return this;
+        }
+
+        /**
+         * Enable or disable a mod.
+         *
+         * @param mod     The name of the mod, like "Coordinates".
+         * @param enabled Weather the mod is enabled.
+         * @return This builder.
+         */
+        public Builder mod(String mod, boolean enabled) {
+            return this.mod(mod, new ModSettings.ModSetting(enabled, new HashMap<>()));
+        }
+
+        /**
+         * Set the settings of a mod.
+         *
+         * @param mod     The name of the mod, like "Coordinates".
+         * @param setting The settings of the mod.
+         * @return This builder.
+         */
+        public Builder mod(String mod, ModSettings.ModSetting setting) {
+            this.mods.put(Preconditions.checkNotNull(mod, "Mod name cannot be null."), setting);
+            return this;
+        }
+
+        /**
+         * Set the name a world is identified as on the client.
+         *
+         * @param worldName  The name of the world on the server.
+         * @param identifier The name of the world on the client.
+         * @return This builder.
+         */
+        public Builder worldIdentifier(String worldName, String identifier) {
+            this.worldIdentifiers.put(worldName, Preconditions.checkNotNull(identifier, "World identifier cannot be null."));
+            return this;
+        }
+
+        /**
+         * Add a waypoint that players are sent when they join its world.
+         *
+         * @param waypoint The waypoint, in the world with the identifier {@link LCWaypoint#getWorld()}.
+         * @return This builder.
+         */
+        public Builder waypoint(LCWaypoint waypoint) {
+            this.waypoints.computeIfAbsent(waypoint.getWorld(), world -> new ArrayList<>()).add(waypoint);
+            return this;
+        }
+
+        /**
+         * Build the bundle.
+         *
+         * @return The bundle.
+         */
+        public LCFeatureBundle build() {
+            return new LCFeatureBundle(this);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.lunarclient.bukkitapi.bundle;
+
+import com.lunarclient.bukkitapi.LunarClientAPI;
+import com.lunarclient.bukkitapi.scheduler.LCScheduledTask;
+import lombok.RequiredArgsConstructor;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.File;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+
+/**
+ * Loads a {@link LCFeatureBundle} from a YAML file, and compiles it again in the
+ * background whenever the file changes.
+ * <p>
+ * The file is checked every few seconds. Until a new version has compiled
+ * the previous bundle keeps being sent, and a file that can't be compiled is
+ * reported and otherwise ignored.
+ */
+@RequiredArgsConstructor
+public final class LCFeatureBundleLoader implements Runnable {
+
+    private final LunarClientAPI lunarClientAPI;
+    private final File file;
+    private final AtomicBoolean compiling = new AtomicBoolean();
+    private volatile long lastModified = Long.MIN_VALUE;
+    private volatile boolean closed;
+    private LCScheduledTask task;
+
+    /**
+     * Compile the file on the current thread, replacing the bundle of the API.
+     *
+     * @return {@link Boolean} value of weather the bundle was compiled.
+     */
+    public boolean load() {
+        this.lastModified = file.lastModified();
+        try {
+            final LCCompiledBundle bundle = LCFeatureBundle.load(YamlConfiguration.loadConfiguration(file)).compile();
+            if (!closed) {
+                lunarClientAPI.setFeatureBundle(bundle);
+            }
+            return true;
+        } catch (RuntimeException ex) {
+            lunarClientAPI.getLogger().log(Level.WARNING, "Could not compile the Lunar Client bundle " + file, ex);
+            return false;
+        }
+    }
+
+    /**
+     * Start checking the file for changes every 5 seconds.
+     */
+    public synchronized void start() {
+        if (task == null && !closed) {
+            this.task = lunarClientAPI.getScheduler().runTimer(lunarClientAPI, this, 5 * 20L, 5 * 20L);
+        }
+    }
+
+    /**
+     * Stop watching the file. The bundle that is already compiled stays in use.
+     */
+    public synchronized void close() {
+        this.closed = true;
+        if (task != null) {
+            this.task.cancel();
+            this.task = null;
+        }
+    }
+
+    /**
+     * Checks if the file changed, and if so compiles it off the server threads.
+     */
+    @Override
+    public void run() {
+        if (closed || file.lastModified() == lastModified || !compiling.compareAndSet(false, true)) {
+            return;
+        }
+
+        lunarClientAPI.getScheduler().runAsync(lunarClientAPI, () -> {
+            try {
+                if (this.load()) {
+                    lunarClientAPI.getLogger().info("Reloaded the Lunar Client bundle " + file.getName());
+                }
+            } finally {
+                compiling.set(false);
+            }
+        });
+    }
+}
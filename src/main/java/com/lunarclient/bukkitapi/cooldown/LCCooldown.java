@@ -1,10 +1,13 @@
 package com.lunarclient.bukkitapi.cooldown;
 
 import com.google.common.base.Preconditions;
+import com.lunarclient.bukkitapi.LCEncodedPacket;
 import com.lunarclient.bukkitapi.LCPacketWrapper;
 import com.lunarclient.bukkitapi.LunarClientAPI;
 import com.lunarclient.bukkitapi.nethandler.client.LCPacketCooldown;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 import org.bukkit.Material;
 import org.bukkit.entity.Player;
 
@@ -22,7 +25,10 @@ public class LCCooldown implements LCPacketWrapper<LCPacketCooldown> {
     // The packet that will be sent to the Lunar Client player
     // Because of @Data, we don't need a getter.
     private final LCPacketCooldown packet;
-
+    // The packet encoded once, so sending the cooldown to many players doesn't encode it again.
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private final LCEncodedPacket encodedPacket;
 
     /**
      * Used to create a persisting cooldown that can be sent to many players.
@@ -32,12 +38,25 @@ public class LCCooldown implements LCPacketWrapper<LCPacketCooldown> {
      * @param itemId The ID of the material that will be the icon
      */
     public LCCooldown(String name, long millis, int itemId) {
+        this(name, millis, itemId, null);
+    }
+
+    /**
+     * Used to restore a persisting cooldown from a packet that was already encoded.
+     *
+     * @param name        A unique name that is not null
+     * @param millis      The duration for the cooldown in milliseconds.
+     * @param itemId      The ID of the material that will be the icon
+     * @param encodedData The {@link LCPacketCooldown} for these values as it was encoded before, or null to encode it now.
+     */
+    public LCCooldown(String name, long millis, int itemId, byte[] encodedData) {
         Preconditions.checkArgument(millis > 0, "Cooldown must have a valid time > 0.");
         this.name = Preconditions.checkNotNull(name, "Cooldown Name cannot be null.");
         this.millis = millis;
         this.item = LunarClientAPI.MATERIALS[itemId];
         this.itemId = itemId;
         packet = new LCPacketCooldown(name, millis, itemId);
+        encodedPacket = encodedData == null ? new LCEncodedPacket(packet) : new LCEncodedPacket(packet, encodedData);
     }
 
     /**
@@ -74,6 +93,10 @@ public class LCCooldown implements LCPacketWrapper<LCPacketCooldown> {
         this(name, unit.toMillis(time), item);
     }
 
+    @Override
+    public void send(Player player) {
+        LunarClientAPI.getInstance().sendPacket(player, encodedPacket);
+    }
 
     /**
      * Clear the cooldown from a player before it naturally expires.
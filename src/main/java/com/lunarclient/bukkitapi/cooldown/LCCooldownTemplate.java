@@ -0,0 +1,144 @@
+package com.lunarclient.bukkitapi.cooldown;
+
+import com.google.common.base.Preconditions;
+import com.lunarclient.bukkitapi.LCEncodedPacket;
+import com.lunarclient.bukkitapi.LunarClientAPI;
+import com.lunarclient.bukkitapi.nethandler.LCPacket;
+import com.lunarclient.bukkitapi.nethandler.client.LCPacketCooldown;
+import lombok.Getter;
+import org.bukkit.Material;
+import org.bukkit.entity.Player;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A cooldown with a fixed name and icon but a duration that can change on every use,
+ * like an ability whose cooldown is reduced by perks.
+ * <p>
+ * The packet is encoded once, and every packet created from the template is a copy
+ * of that encoding with only the duration written over, instead of creating
+ * (and validating, and encoding) a new {@link LCCooldown} each time.
+ */
+public final class LCCooldownTemplate {
+
+    // Two durations that differ in every byte, to find where the duration is encoded.
+    private static final long PROBE_A = 0x0102030405060708L;
+    private static final long PROBE_B = 0x1112131415161718L;
+
+    @Getter
+    private final String name;
+    @Getter
+    private final int itemId;
+    private final byte[] template;
+    // Where the duration starts in the encoded packet, or -1 if every packet has to be encoded.
+    private final int durationOffset;
+
+    /**
+     * Create a cooldown template.
+     *
+     * @param name   A unique name that is not null
+     * @param itemId The ID of the material that will be the icon
+     */
+    public LCCooldownTemplate(String name, int itemId) {
+        this.name = Preconditions.checkNotNull(name, "Cooldown Name cannot be null.");
+        Preconditions.checkElementIndex(itemId, LunarClientAPI.MATERIALS.length, "Cooldown item");
+        this.itemId = itemId;
+
+        this.template = LCPacket.getPacketData(new LCPacketCooldown(name, PROBE_A, itemId));
+        this.durationOffset = findDuration(template, LCPacket.getPacketData(new LCPacketCooldown(name, PROBE_B, itemId)));
+    }
+
+    /**
+     * Create a cooldown template.
+     *
+     * @param name A unique name that is not null
+     * @param item The icon that will be displayed in Lunar Client.
+     */
+    public LCCooldownTemplate(String name, Material item) {
+        this(name, LCCooldown.convertMaterialToId(item));
+    }
+
+    /**
+     * Create the cooldown packet for a duration.
+     *
+     * @param millis The duration for the cooldown in milliseconds, or 0 to clear it.
+     * @return The encoded packet, ready to be sent.
+     */
+    public LCEncodedPacket create(long millis) {
+        Preconditions.checkArgument(millis >= 0, "Cooldown must have a valid time >= 0.");
+        final LCPacketCooldown packet = new LCPacketCooldown(name, millis, itemId);
+        if (durationOffset < 0) {
+            return new LCEncodedPacket(packet);
+        }
+
+        final byte[] data = template.clone();
+        for (int i = 7; i >= 0; i--) {
+            data[durationOffset + i] = (byte) millis;
+            millis >>>= 8;
+        }
+        return new LCEncodedPacket(packet, data);
+    }
+
+    /**
+     * Create the cooldown packet for a duration.
+     *
+     * @param time A duration greater than or equal to 0.
+     * @param unit A unit of measurement to put the cooldown in
+     * @return The encoded packet, ready to be sent.
+     */
+    public LCEncodedPacket create(long time, TimeUnit unit) {
+        return this.create(unit.toMillis(time));
+    }
+
+    /**
+     * Send the cooldown to a player.
+     *
+     * @param player The player to send the cooldown to.
+     * @param millis The duration for the cooldown in milliseconds.
+     * @return {@link Boolean} value of weather the packet was sent.
+     */
+    public boolean send(Player player, long millis) {
+        return LunarClientAPI.getInstance().sendPacket(player, this.create(millis));
+    }
+
+    /**
+     * Clear the cooldown from a player before it naturally expires.
+     *
+     * @param player The player to clear the cooldown for.
+     * @return {@link Boolean} value of weather the packet was sent.
+     */
+    public boolean clear(Player player) {
+        return this.send(player, 0);
+    }
+
+    /**
+     * Find the 8 bytes the duration is written to, by comparing the same packet
+     * encoded with two different durations.
+     */
+    private static int findDuration(byte[] a, byte[] b) {
+        if (a.length != b.length) {
+            return -1;
+        }
+
+        int first = -1;
+        int last = -1;
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] != b[i]) {
+                if (first < 0) {
+                    first = i;
+                }
+                last = i;
+            }
+        }
+        if (first < 0 || last - first != 7) {
+            return -1;
+        }
+
+        // Only patch if the difference is exactly the duration written as a big-endian long.
+        long value = 0;
+        for (int i = 0; i < 8; i++) {
+            value = (value << 8) | (a[first + i] & 0xFF);
+        }
+        return value == PROBE_A ? first : -1;
+    }
+}
@@ -1,15 +1,22 @@
 package com.lunarclient.bukkitapi.cooldown;
 
+import com.lunarclient.bukkitapi.LCEncodedPacket;
+import com.lunarclient.bukkitapi.LunarClientAPI;
 import lombok.experimental.UtilityClass;
 import org.bukkit.entity.Player;
 
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @UtilityClass
 public class LunarClientAPICooldown {
 
-    private final Map<String, LCCooldown> registeredCooldowns = new HashMap<>();
+    private final Map<String, LCCooldown> registeredCooldowns = new ConcurrentHashMap<>();
 
     /**
      * Used to register a persisting cooldown.
@@ -47,6 +54,43 @@ public class LunarClientAPICooldown {
         registeredCooldowns.get(cooldownId).send(player);
     }
 
+    /**
+     * Sends many registered cooldowns to a Lunar Client player at once, as a single write.
+     *
+     * @param player        The player to send the cooldowns to
+     * @param cooldownNames The names of the {@link LCCooldown} that are sent.
+     */
+    public void sendCooldowns(Player player, String... cooldownNames) {
+        final List<LCEncodedPacket> packets = new ArrayList<>(cooldownNames.length);
+        for (String cooldownName : cooldownNames) {
+            final LCCooldown cooldown = registeredCooldowns.get(cooldownName.toLowerCase());
+            if (cooldown == null) {
+                throw new IllegalStateException("Attempted to send a cooldown that isn't registered [" + cooldownName + "]");
+            }
+            packets.add(cooldown.getEncodedPacket());
+        }
+        LunarClientAPI.getInstance().sendEncodedPackets(player, packets);
+    }
+
+    /**
+     * Sends many cooldowns created from {@link LCCooldownTemplate templates} to a Lunar Client player at once, as a single write.
+     *
+     * @param player    The player to send the cooldowns to
+     * @param cooldowns The cooldown packets, from {@link LCCooldownTemplate#create(long)}.
+     */
+    public void sendCooldowns(Player player, LCEncodedPacket... cooldowns) {
+        LunarClientAPI.getInstance().sendEncodedPackets(player, Arrays.asList(cooldowns));
+    }
+
+    /**
+     * Get every cooldown that is currently registered.
+     *
+     * @return An unmodifiable view of the registered cooldowns.
+     */
+    public Collection<LCCooldown> getRegisteredCooldowns() {
+        return Collections.unmodifiableCollection(registeredCooldowns.values());
+    }
+
     public void clearCooldown(Player player, String cooldownName) {
         String cooldownId = cooldownName.toLowerCase();
         if (!registeredCooldowns.containsKey(cooldownId)) {
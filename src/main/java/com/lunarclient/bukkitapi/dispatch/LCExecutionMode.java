@@ -0,0 +1,21 @@
+package com.lunarclient.bukkitapi.dispatch;
+
+/**
+ * Which thread a {@link LCPacketHandler} is called on.
+ */
+public enum LCExecutionMode {
+
+    /**
+     * Called on the thread that owns the player, the main server thread
+     * (or the player's region thread on region threaded servers).
+     * If the packet was received on that thread the handler is called immediately.
+     */
+    SYNC,
+    /**
+     * Called off the server threads. If the packet was received on the network thread
+     * the handler is called there immediately, otherwise on a scheduler worker thread.
+     * The handler must not touch anything that isn't thread safe.
+     */
+    ASYNC
+
+}
@@ -0,0 +1,182 @@
+package com.lunarclient.bukkitapi.dispatch;
+
+import com.lunarclient.bukkitapi.nethandler.LCPacket;
+import com.lunarclient.bukkitapi.scheduler.LCScheduler;
+import lombok.RequiredArgsConstructor;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.server.PluginDisableEvent;
+import org.bukkit.plugin.Plugin;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.logging.Level;
+
+/**
+ * Routes received packets to the handlers subscribed to their type.
+ * <p>
+ * A handler subscribed to a class receives packets of that class and of its subclasses,
+ * so subscribing to an interface or a superclass receives every packet implementing it.
+ * <p>
+ * Handlers are kept in an array per subscribed class. The handlers for each received
+ * packet class are resolved from those once, and resolved again only after the (rare)
+ * subscribe or unsubscribe, so dispatching a packet is a single map lookup followed by
+ * a loop over only the handlers that care about it.
+ * <p>
+ * Handlers are unsubscribed automatically when their plugin is disabled.
+ */
+public final class LCPacketDispatcher implements Listener {
+
+    private static final Registration<?>[] NO_HANDLERS = new Registration<?>[0];
+
+    private final LCScheduler scheduler;
+    private final Map<Class<?>, Registration<?>[]> handlers = new ConcurrentHashMap<>();
+    // The handlers of every subscribed class a received packet class is assignable to.
+    // Replaced on every change, so a lookup racing with a change can't store stale handlers in the new map.
+    private volatile Map<Class<?>, Registration<?>[]> resolved = new ConcurrentHashMap<>();
+
+    /**
+     * Create a dispatcher.
+     *
+     * @param scheduler Moves handlers to the thread their {@link LCExecutionMode} asks for.
+     */
+    public LCPacketDispatcher(LCScheduler scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Subscribe a handler to a type of packet.
+     *
+     * @param plugin      The plugin that owns the handler.
+     * @param packetClass The class of the packets to handle, packets of its subclasses are handled as well.
+     * @param mode        The thread the handler is called on.
+     * @param handler     The handler.
+     * @param <T>         The type of packet handled.
+     */
+    public synchronized <T extends LCPacket> void subscribe(Plugin plugin, Class<T> packetClass, LCExecutionMode mode, LCPacketHandler<? super T> handler) {
+        final Registration<?>[] current = handlers.getOrDefault(packetClass, NO_HANDLERS);
+        final Registration<?>[] updated = new Registration<?>[current.length + 1];
+        System.arraycopy(current, 0, updated, 0, current.length);
+        updated[current.length] = new Registration<>(plugin, mode, handler);
+        handlers.put(packetClass, updated);
+        this.resolved = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Unsubscribe a single handler from every packet type it was subscribed to.
+     *
+     * @param handler The handler to remove.
+     */
+    public synchronized void unsubscribe(LCPacketHandler<?> handler) {
+        this.removeIf(registration -> registration.handler == handler);
+    }
+
+    /**
+     * Unsubscribe every handler owned by a plugin.
+     *
+     * @param plugin The plugin whose handlers are removed.
+     */
+    public synchronized void unsubscribe(Plugin plugin) {
+        this.removeIf(registration -> registration.plugin == plugin);
+    }
+
+    /**
+     * Pass a received packet to every handler subscribed to its type.
+     *
+     * @param player The player that sent the packet.
+     * @param packet The packet received.
+     */
+    public void dispatch(Player player, LCPacket packet) {
+        if (handlers.isEmpty()) {
+            return;
+        }
+
+        final Registration<?>[] registrations = resolved.computeIfAbsent(packet.getClass(), this::resolve);
+        for (Registration<?> registration : registrations) {
+            registration.dispatch(player, packet);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPluginDisable(PluginDisableEvent event) {
+        this.unsubscribe(event.getPlugin());
+    }
+
+    private Registration<?>[] resolve(Class<?> packetClass) {
+        final Registration<?>[] exact = handlers.getOrDefault(packetClass, NO_HANDLERS);
+        final List<Registration<?>> matching = new ArrayList<>();
+        for (Map.Entry<Class<?>, Registration<?>[]> entry : handlers.entrySet()) {
+            if (entry.getKey() != packetClass && entry.getKey().isAssignableFrom(packetClass)) {
+                for (Registration<?> registration : entry.getValue()) {
+                    matching.add(registration);
+                }
+            }
+        }
+        if (matching.isEmpty()) {
+            return exact;
+        }
+
+        final List<Registration<?>> all = new ArrayList<>(exact.length + matching.size());
+        for (Registration<?> registration : exact) {
+            all.add(registration);
+        }
+        all.addAll(matching);
+        return all.toArray(NO_HANDLERS);
+    }
+
+    private void removeIf(Predicate<Registration<?>> filter) {
+        for (Map.Entry<Class<?>, Registration<?>[]> entry : handlers.entrySet()) {
+            final List<Registration<?>> kept = new ArrayList<>();
+            for (Registration<?> registration : entry.getValue()) {
+                if (!filter.test(registration)) {
+                    kept.add(registration);
+                }
+            }
+
+            if (kept.isEmpty()) {
+                handlers.remove(entry.getKey());
+            } else if (kept.size() != entry.getValue().length) {
+                handlers.put(entry.getKey(), kept.toArray(NO_HANDLERS));
+            }
+        }
+        this.resolved = new ConcurrentHashMap<>();
+    }
+
+    @RequiredArgsConstructor
+    private final class Registration<T extends LCPacket> {
+
+        private final Plugin plugin;
+        private final LCExecutionMode mode;
+        private final LCPacketHandler<? super T> handler;
+
+        @SuppressWarnings("unchecked")
+        private void dispatch(Player player, LCPacket packet) {
+            final boolean owned = scheduler.isOwnedByCurrentThread(player);
+            if (mode == LCExecutionMode.ASYNC) {
+                if (owned) {
+                    scheduler.runAsync(plugin, () -> this.call(player, (T) packet));
+                } else {
+                    this.call(player, (T) packet);
+                }
+            } else if (owned) {
+                this.call(player, (T) packet);
+            } else {
+                scheduler.run(plugin, player, () -> this.call(player, (T) packet));
+            }
+        }
+
+        private void call(Player player, T packet) {
+            try {
+                handler.handle(player, packet);
+            } catch (Throwable throwable) {
+                plugin.getLogger().log(Level.SEVERE, "Could not handle " + packet.getClass().getSimpleName()
+                        + " from " + player.getName(), throwable);
+            }
+        }
+    }
+}
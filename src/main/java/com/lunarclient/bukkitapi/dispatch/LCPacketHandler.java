@@ -0,0 +1,22 @@
+package com.lunarclient.bukkitapi.dispatch;
+
+import com.lunarclient.bukkitapi.nethandler.LCPacket;
+import org.bukkit.entity.Player;
+
+/**
+ * Handles one type of {@link LCPacket} received from Lunar Client players.
+ *
+ * @param <T> The type of packet handled.
+ */
+@FunctionalInterface
+public interface LCPacketHandler<T extends LCPacket> {
+
+    /**
+     * Called when a player sends a packet of the subscribed type.
+     *
+     * @param player The Lunar Client player that sent the packet.
+     * @param packet The packet received from the client.
+     */
+    void handle(Player player, T packet);
+
+}
@@ -0,0 +1,133 @@
+package com.lunarclient.bukkitapi.fragment;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects the fragments of packets sent by a single player
+ * until every fragment of a packet has arrived.
+ * <p>
+ * Only a few packets can be incomplete at once: when fragments of a new packet arrive
+ * the oldest incomplete packet is thrown away, as are packets that didn't complete in time.
+ * The total amount of buffered data, including the arrays holding the fragments, is capped,
+ * if a client sends more than that every partial packet is thrown away.
+ */
+final class LCFragmentReassembler {
+
+    // A sane client finishes a packet before starting many others.
+    private static final int MAX_PENDING_MESSAGES = 4;
+    private static final long PENDING_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(30);
+    // Header and one reference per fragment of the array holding the chunks, with compressed oops or not.
+    private static final int ARRAY_OVERHEAD = 16;
+    private static final int REFERENCE_SIZE = 8;
+
+    private final int maxBufferedBytes;
+    // In the order the first fragment of each packet arrived.
+    private final Map<Integer, Pending> pending = new LinkedHashMap<>();
+    private int bufferedBytes;
+
+    LCFragmentReassembler(int maxBufferedBytes) {
+        this.maxBufferedBytes = maxBufferedBytes;
+    }
+
+    /**
+     * Store a fragment of a packet.
+     *
+     * @param messageId The id shared by every fragment of the packet.
+     * @param index     The position of this fragment.
+     * @param count     The amount of fragments the packet was split into.
+     * @param chunk     The fragment itself.
+     * @return The complete packet if this was the last missing fragment, otherwise null.
+     */
+    synchronized byte[] accept(int messageId, int index, int count, byte[] chunk) {
+        // Every fragment but the last is close to a full plugin message,
+        // so a sane client never needs anywhere near this many, and never sends an empty one.
+        if (count <= 0 || count > maxBufferedBytes / 1024 || index < 0 || index >= count || chunk.length == 0) {
+            return null;
+        }
+
+        final long now = System.currentTimeMillis();
+        this.expire(now);
+
+        Pending message = pending.get(messageId);
+        if (message != null && (message.chunks.length != count || message.chunks[index] != null)) {
+            // Doesn't match the fragments already received, or a duplicate.
+            return null;
+        }
+
+        // Only what is stored counts, and everything stored is subtracted again on completion or eviction.
+        final int size = chunk.length + (message == null ? arraySize(count) : 0);
+        if (bufferedBytes + size > maxBufferedBytes) {
+            pending.clear();
+            bufferedBytes = 0;
+            return null;
+        }
+
+        if (message == null) {
+            if (pending.size() >= MAX_PENDING_MESSAGES) {
+                final Iterator<Pending> oldest = pending.values().iterator();
+                this.forget(oldest.next());
+                oldest.remove();
+            }
+            message = new Pending(new byte[count][], now);
+            pending.put(messageId, message);
+        }
+        message.chunks[index] = chunk;
+        message.length += chunk.length;
+        bufferedBytes += size;
+
+        if (++message.received < count) {
+            return null;
+        }
+
+        pending.remove(messageId);
+        bufferedBytes -= message.length + arraySize(count);
+
+        final byte[] data = new byte[message.length];
+        int offset = 0;
+        for (byte[] part : message.chunks) {
+            System.arraycopy(part, 0, data, offset, part.length);
+            offset += part.length;
+        }
+        return data;
+    }
+
+    /**
+     * Throw away the packets that didn't complete in time. They are in the order they were started,
+     * so only the oldest ones need to be checked.
+     */
+    private void expire(long now) {
+        final Iterator<Pending> iterator = pending.values().iterator();
+        while (iterator.hasNext()) {
+            final Pending message = iterator.next();
+            if (now - message.startedAt <= PENDING_TIMEOUT_MILLIS) {
+                return;
+            }
+            this.forget(message);
+            iterator.remove();
+        }
+    }
+
+    private void forget(Pending message) {
+        bufferedBytes -= message.length + arraySize(message.chunks.length);
+    }
+
+    private static int arraySize(int count) {
+        return ARRAY_OVERHEAD + count * REFERENCE_SIZE;
+    }
+
+    private static final class Pending {
+
+        private final byte[][] chunks;
+        private final long startedAt;
+        private int received;
+        private int length;
+
+        private Pending(byte[][] chunks, long startedAt) {
+            this.chunks = chunks;
+            this.startedAt = startedAt;
+        }
+    }
+}
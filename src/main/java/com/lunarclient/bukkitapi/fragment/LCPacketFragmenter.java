@@ -0,0 +1,284 @@
+package com.lunarclient.bukkitapi.fragment;
+
+import com.lunarclient.bukkitapi.LunarClientAPI;
+import com.lunarclient.bukkitapi.nethandler.ByteBufWrapper;
+import com.lunarclient.bukkitapi.transport.LCPacketTransport;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import lombok.RequiredArgsConstructor;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.messaging.Messenger;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+/**
+ * Splits encoded packets that are too large for a single plugin message
+ * into fragments, and packs many small packets into a single batch frame.
+ * <p>
+ * Both of these are only done for clients that listen on {@link #FRAGMENT_CHANNEL},
+ * every other client receives one plugin message per packet on {@link LunarClientAPI#MESSAGE_CHANNEL},
+ * exactly as before. Frames are written through the API's {@link LCPacketTransport}.
+ * <p>
+ * Frame layout on the fragment channel:
+ * <pre>
+ * BATCH:    [byte 0] [varint count] ([varint length] [bytes])...
+ * FRAGMENT: [byte 1] [int messageId] [varint index] [varint count] [bytes]
+ * </pre>
+ */
+@RequiredArgsConstructor
+public final class LCPacketFragmenter {
+
+    public static final String FRAGMENT_CHANNEL = "lunarclient:frag";
+
+    private static final byte TYPE_BATCH = 0;
+    private static final byte TYPE_FRAGMENT = 1;
+
+    // type + messageId + two varints, rounded up.
+    private static final int FRAGMENT_HEADER_SIZE = 16;
+    // type + count varint, rounded up.
+    private static final int BATCH_HEADER_SIZE = 6;
+    private static final int MAX_FRAME_SIZE = Messenger.MAX_MESSAGE_SIZE;
+    // The largest payload we are willing to reassemble for a single player.
+    private static final int MAX_REASSEMBLED_SIZE = 1024 * 1024;
+
+    private final LunarClientAPI lunarClientAPI;
+    private final AtomicInteger messageIds = new AtomicInteger();
+    private final Map<UUID, LCFragmentReassembler> reassemblers = new ConcurrentHashMap<>();
+
+    /**
+     * Checks if the client has told us it understands fragment and batch frames.
+     *
+     * @param player The Lunar Client player to check.
+     * @return {@link Boolean} value of weather frames can be sent to this player.
+     */
+    public boolean isSupported(Player player) {
+        return player.getListeningPluginChannels().contains(FRAGMENT_CHANNEL);
+    }
+
+    /**
+     * Send a single encoded packet, splitting it into fragments if needed.
+     * <p>
+     * If the packet is too large and the client can't reassemble it,
+     * the packet is dropped with a warning instead of throwing.
+     *
+     * @param player The Lunar Client player to receive the packet.
+     * @param data   The encoded packet, ownership passes to the fragmenter.
+     * @return {@link Boolean} value of weather the packet was sent.
+     */
+    public boolean send(Player player, ByteBuf data) {
+        final int size = data.readableBytes();
+        if (size <= MAX_FRAME_SIZE) {
+            this.transport().send(player, LunarClientAPI.MESSAGE_CHANNEL, data);
+            return true;
+        }
+
+        try {
+            if (!isSupported(player)) {
+                lunarClientAPI.getLogger().warning("Dropped a " + size + " byte packet for " + player.getName()
+                        + ", it is larger than a plugin message and the client can't reassemble fragments.");
+                return false;
+            }
+
+            final int chunkSize = MAX_FRAME_SIZE - FRAGMENT_HEADER_SIZE;
+            final int count = (size + chunkSize - 1) / chunkSize;
+            final int messageId = messageIds.incrementAndGet();
+
+            for (int index = 0; index < count; index++) {
+                final int offset = index * chunkSize;
+                final int length = Math.min(chunkSize, size - offset);
+
+                final ByteBufWrapper header = new ByteBufWrapper(Unpooled.buffer(FRAGMENT_HEADER_SIZE));
+                header.buf().writeByte(TYPE_FRAGMENT);
+                header.buf().writeInt(messageId);
+                header.writeVarInt(index);
+                header.writeVarInt(count);
+
+                this.transport().send(player, FRAGMENT_CHANNEL,
+                        Unpooled.wrappedBuffer(header.buf(), data.retainedSlice(data.readerIndex() + offset, length)));
+            }
+            return true;
+        } finally {
+            data.release();
+        }
+    }
+
+    /**
+     * Send many encoded packets at once.
+     * <p>
+     * Clients that support it receive as few batch frames as possible,
+     * everyone else receives each packet on its own.
+     *
+     * @param player  The Lunar Client player to receive the packets.
+     * @param packets The encoded packets, in the order they should be handled. Ownership passes to the fragmenter.
+     * @return The indexes of the packets that were sent.
+     */
+    public BitSet sendAll(Player player, List<ByteBuf> packets) {
+        final BitSet sent = new BitSet(packets.size());
+        if (packets.size() < 2 || !isSupported(player)) {
+            for (int i = 0; i < packets.size(); i++) {
+                if (send(player, packets.get(i))) {
+                    sent.set(i);
+                }
+            }
+            return sent;
+        }
+
+        // Indexes of the packets in the batch being built.
+        final List<Integer> batch = new ArrayList<>();
+        int batchSize = BATCH_HEADER_SIZE;
+
+        for (int i = 0; i < packets.size(); i++) {
+            final ByteBuf data = packets.get(i);
+            final int entrySize = data.readableBytes() + 5;
+
+            // Anything that can't share a frame goes out (and gets fragmented) on its own.
+            if (entrySize + BATCH_HEADER_SIZE > MAX_FRAME_SIZE) {
+                if (send(player, data)) {
+                    sent.set(i);
+                }
+                continue;
+            }
+
+            if (batchSize + entrySize > MAX_FRAME_SIZE) {
+                flushBatch(player, packets, batch, sent);
+                batchSize = BATCH_HEADER_SIZE;
+            }
+            batch.add(i);
+            batchSize += entrySize;
+        }
+        flushBatch(player, packets, batch, sent);
+        return sent;
+    }
+
+    /**
+     * Handle a frame received on {@link #FRAGMENT_CHANNEL}.
+     * Every packet that is complete after this frame is handed to the handler.
+     *
+     * @param player  The player that sent the frame.
+     * @param frame   The raw frame.
+     * @param handler The handler for each complete encoded packet.
+     */
+    public void receive(Player player, byte[] frame, BiConsumer<Player, byte[]> handler) {
+        // The frame is parsed completely before anything is handled, so a malformed frame is dropped as a whole.
+        final List<byte[]> packets;
+        try {
+            packets = this.parse(player, frame);
+        } catch (RuntimeException ex) {
+            lunarClientAPI.getLogger().warning("Received a malformed frame from " + player.getName() + ": " + ex);
+            return;
+        }
+
+        for (byte[] data : packets) {
+            handler.accept(player, data);
+        }
+    }
+
+    /**
+     * Read the complete packets out of a frame. Every length in the frame comes from the
+     * client, so each is checked against what is actually left in the frame.
+     *
+     * @param player The player that sent the frame.
+     * @param frame  The raw frame.
+     * @return The packets that are complete after this frame.
+     * @throws IllegalArgumentException If the frame is malformed.
+     */
+    private List<byte[]> parse(Player player, byte[] frame) {
+        final ByteBufWrapper buf = new ByteBufWrapper(Unpooled.wrappedBuffer(frame));
+        final byte type = buf.buf().readByte();
+
+        if (type == TYPE_BATCH) {
+            final int count = buf.readVarInt();
+            // Every entry takes at least the byte of its length.
+            if (count < 0 || count > buf.buf().readableBytes()) {
+                throw new IllegalArgumentException("Invalid batch size " + count);
+            }
+
+            final List<byte[]> packets = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                final int length = buf.readVarInt();
+                if (length < 0 || length > buf.buf().readableBytes()) {
+                    throw new IllegalArgumentException("Invalid packet length " + length);
+                }
+                final byte[] data = new byte[length];
+                buf.buf().readBytes(data);
+                packets.add(data);
+            }
+            return packets;
+        } else if (type == TYPE_FRAGMENT) {
+            final int messageId = buf.buf().readInt();
+            final int index = buf.readVarInt();
+            final int count = buf.readVarInt();
+            final byte[] chunk = toArray(buf.buf());
+
+            final byte[] data = reassemblers
+                    .computeIfAbsent(player.getUniqueId(), uuid -> new LCFragmentReassembler(MAX_REASSEMBLED_SIZE))
+                    .accept(messageId, index, count, chunk);
+            return data == null ? Collections.emptyList() : Collections.singletonList(data);
+        }
+        throw new IllegalArgumentException("Unknown frame type " + type);
+    }
+
+    /**
+     * Drop any partially received packets for a player.
+     *
+     * @param player The player that unregistered or quit.
+     */
+    public void clear(Player player) {
+        this.reassemblers.remove(player.getUniqueId());
+    }
+
+    private void flushBatch(Player player, List<ByteBuf> packets, List<Integer> batch, BitSet sent) {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        final int count = batch.size();
+        if (count == 1) {
+            if (send(player, packets.get(batch.get(0)))) {
+                sent.set(batch.get(0));
+            }
+            batch.clear();
+            return;
+        }
+
+        // The packets themselves are not copied, the frame is a composite of
+        // small length prefixes and the encoded packets.
+        final ByteBuf[] components = new ByteBuf[count * 2 + 1];
+        final ByteBufWrapper header = new ByteBufWrapper(Unpooled.buffer(BATCH_HEADER_SIZE));
+        header.buf().writeByte(TYPE_BATCH);
+        header.writeVarInt(count);
+        components[0] = header.buf();
+
+        for (int i = 0; i < count; i++) {
+            final ByteBuf data = packets.get(batch.get(i));
+            final ByteBufWrapper length = new ByteBufWrapper(Unpooled.buffer(5));
+            length.writeVarInt(data.readableBytes());
+            components[i * 2 + 1] = length.buf();
+            components[i * 2 + 2] = data;
+        }
+
+        this.transport().send(player, FRAGMENT_CHANNEL, Unpooled.wrappedBuffer(components.length, components));
+        for (int index : batch) {
+            sent.set(index);
+        }
+        batch.clear();
+    }
+
+    private LCPacketTransport transport() {
+        return lunarClientAPI.getTransport();
+    }
+
+    private static byte[] toArray(ByteBuf buf) {
+        final byte[] bytes = new byte[buf.readableBytes()];
+        buf.readBytes(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,316 @@
+package com.lunarclient.bukkitapi.governor;
+
+import com.google.common.base.Preconditions;
+import com.lunarclient.bukkitapi.LCEncodedPacket;
+import com.lunarclient.bukkitapi.LunarClientAPI;
+import com.lunarclient.bukkitapi.nethandler.LCPacket;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.bukkit.Server;
+import org.bukkit.entity.Player;
+
+import java.lang.reflect.Method;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Slows down cosmetic traffic while the server is lagging, instead of letting it add to the lag.
+ * <p>
+ * The governor watches how long ticks take, using the average tick time of the server where
+ * it is available (Paper). Otherwise it measures the wall-clock time between two runs of its
+ * own task, which runs every tick, and uses how far that is over the 50 ms a tick should take,
+ * so GC pauses, I/O and lock waits count as well. On region threaded servers (Folia) the task
+ * runs on the global region, so only the ticks of the global region are measured, not those of
+ * the regions players are in.
+ * <p>
+ * Once ticks take longer than the shed threshold the shedding level goes up, one level at
+ * most every second. At level n, sheddable categories are only updated every 2^n ticks:
+ * hologram, nametag and teammate updates are held back and only the latest one for each
+ * hologram, nametag or player is sent, and tracked waypoints and animations move less often.
+ * Once ticks have been faster than the recover threshold for 5 seconds the level goes down
+ * again, one level at a time.
+ * <p>
+ * Critical categories, like cooldowns and titles, are never held back.
+ */
+public final class LCLoadGovernor implements Runnable {
+
+    // Smoothing of the measured tick time, each tick counts for this much of the average.
+    private static final double SMOOTHING = 0.1;
+    private static final double TICK_MILLIS = 50;
+    private static final long RAISE_INTERVAL_TICKS = 20L;
+    private static final long RECOVER_TICKS = 5 * 20L;
+
+    private final LunarClientAPI lunarClientAPI;
+    // Paper's average tick time, null when the server doesn't have it.
+    private Method averageTickTime = findAverageTickTime();
+    // Replaced rather than modified, as it is read on every update.
+    private volatile Set<LCTrafficCategory> sheddable = EnumSet.noneOf(LCTrafficCategory.class);
+    private final Map<Key, Deferred> deferred = new ConcurrentHashMap<>();
+    @Getter
+    private volatile double shedAboveMillis = 45;
+    @Getter
+    private volatile double recoverBelowMillis = 35;
+    @Getter
+    private volatile int maxLevel = 3;
+    @Getter
+    private volatile int level;
+    @Getter
+    private volatile double tickMillis;
+    private long tick;
+    private long lastRunNanos = -1;
+    private long lastChange;
+    private long fastSince = -1;
+
+    public LCLoadGovernor(LunarClientAPI lunarClientAPI) {
+        this.lunarClientAPI = lunarClientAPI;
+        for (LCTrafficCategory category : LCTrafficCategory.values()) {
+            if (!category.isCritical()) {
+                this.sheddable.add(category);
+            }
+        }
+    }
+
+    /**
+     * Set when shedding starts and stops. The gap between them keeps the level from flapping.
+     *
+     * @param shedAboveMillis    Ticks slower than this raise the shedding level.
+     * @param recoverBelowMillis Ticks faster than this for 5 seconds lower the shedding level.
+     */
+    public void setThresholds(double shedAboveMillis, double recoverBelowMillis) {
+        Preconditions.checkArgument(recoverBelowMillis < shedAboveMillis, "Recover threshold must be below the shed threshold.");
+        this.shedAboveMillis = shedAboveMillis;
+        this.recoverBelowMillis = recoverBelowMillis;
+    }
+
+    /**
+     * Set the highest shedding level, 0 turns shedding off.
+     *
+     * @param maxLevel The level, at level n sheddable traffic is updated every 2^n ticks.
+     */
+    public void setMaxLevel(int maxLevel) {
+        Preconditions.checkArgument(maxLevel >= 0 && maxLevel <= 6, "Max level must be between 0 and 6.");
+        this.maxLevel = maxLevel;
+    }
+
+    /**
+     * Set if a category is slowed down while the server is lagging.
+     *
+     * @param category  The category.
+     * @param sheddable If the category can be shed.
+     * @throws IllegalArgumentException If the category is critical.
+     */
+    public void setSheddable(LCTrafficCategory category, boolean sheddable) {
+        Preconditions.checkArgument(!category.isCritical() || !sheddable, category + " is critical and can't be shed.");
+        synchronized (this) {
+            final Set<LCTrafficCategory> updated = EnumSet.copyOf(this.sheddable);
+            if (sheddable) {
+                updated.add(category);
+            } else {
+                updated.remove(category);
+            }
+            this.sheddable = updated;
+        }
+    }
+
+    /**
+     * Checks if a category is slowed down while the server is lagging.
+     *
+     * @param category The category.
+     * @return {@link Boolean} value of weather the category can be shed.
+     */
+    public boolean isSheddable(LCTrafficCategory category) {
+        return this.sheddable.contains(category);
+    }
+
+    /**
+     * Get how often a category is currently updated.
+     *
+     * @param category The category.
+     * @return Every how many ticks the category is updated, 1 when it isn't shed.
+     */
+    public int getCadence(LCTrafficCategory category) {
+        final int level = this.level;
+        return level == 0 || !this.isSheddable(category) ? 1 : 1 << level;
+    }
+
+    /**
+     * Get the amount of updates currently held back.
+     *
+     * @return The amount of updates waiting to be sent.
+     */
+    public int getDeferred() {
+        return deferred.size();
+    }
+
+    /**
+     * Send an update that replaces the previous update with the same key, holding it back while shedding.
+     *
+     * @param category The category of the update.
+     * @param player   The player to send the update to.
+     * @param key      What the update is for, like the id of a hologram. Null if there's one per player.
+     * @param packet   The packet.
+     */
+    public void send(LCTrafficCategory category, Player player, UUID key, LCPacket packet) {
+        this.send(category, player, key, (Object) packet);
+    }
+
+    /**
+     * Send an encoded update that replaces the previous update with the same key, holding it back while shedding.
+     *
+     * @param category The category of the update.
+     * @param player   The player to send the update to.
+     * @param key      What the update is for, like the id of a hologram. Null if there's one per player.
+     * @param packet   The encoded packet.
+     */
+    public void send(LCTrafficCategory category, Player player, UUID key, LCEncodedPacket packet) {
+        this.send(category, player, key, (Object) packet);
+    }
+
+    /**
+     * Drop an update that is being held back, as something that replaces it was sent (like removing a hologram).
+     *
+     * @param category The category of the update.
+     * @param player   The player the update was for.
+     * @param key      What the update is for, like the id of a hologram. Null if there's one per player.
+     */
+    public void cancel(LCTrafficCategory category, Player player, UUID key) {
+        if (!deferred.isEmpty()) {
+            this.deferred.remove(new Key(category, player.getUniqueId(), key));
+        }
+    }
+
+    /**
+     * Forget every update held back for a player.
+     *
+     * @param player The player that quit.
+     */
+    public void clear(Player player) {
+        this.deferred.keySet().removeIf(key -> key.player.equals(player.getUniqueId()));
+    }
+
+    @Override
+    public void run() {
+        final long tick = ++this.tick;
+        final double millis = this.sampleTickMillis();
+        if (millis >= 0) {
+            this.tickMillis = millis;
+            this.adjust(tick, millis);
+        }
+
+        final int level = this.level;
+        if (!deferred.isEmpty() && (level == 0 || tick % (1L << level) == 0)) {
+            this.flush();
+        }
+    }
+
+    private void send(LCTrafficCategory category, Player player, UUID key, Object packet) {
+        if (this.getCadence(category) == 1) {
+            if (!deferred.isEmpty()) {
+                this.deferred.remove(new Key(category, player.getUniqueId(), key));
+            }
+            this.sendNow(player, packet);
+            return;
+        }
+        this.deferred.put(new Key(category, player.getUniqueId(), key), new Deferred(player, packet));
+    }
+
+    private void adjust(long tick, double millis) {
+        final int level = this.level;
+        if (level > maxLevel) {
+            this.changeLevel(tick, maxLevel, millis);
+        } else if (millis > shedAboveMillis) {
+            this.fastSince = -1;
+            if (level < maxLevel && tick - lastChange >= RAISE_INTERVAL_TICKS) {
+                this.changeLevel(tick, level + 1, millis);
+            }
+        } else if (millis < recoverBelowMillis) {
+            if (fastSince < 0) {
+                this.fastSince = tick;
+            }
+            if (level > 0 && tick - fastSince >= RECOVER_TICKS && tick - lastChange >= RECOVER_TICKS) {
+                this.changeLevel(tick, level - 1, millis);
+            }
+        } else {
+            this.fastSince = -1;
+        }
+    }
+
+    private void changeLevel(long tick, int level, double millis) {
+        this.level = level;
+        this.lastChange = tick;
+        lunarClientAPI.getLogger().info(String.format("Lunar Client cosmetic traffic is now at shedding level %d (tick time %.1f ms).", level, millis));
+    }
+
+    private void flush() {
+        for (Key key : deferred.keySet()) {
+            // Whatever is removed is sent, so a newer update put in meanwhile is never dropped unsent.
+            final Deferred update = this.deferred.remove(key);
+            if (update != null && update.player.isOnline()) {
+                this.sendNow(update.player, update.packet);
+            }
+        }
+    }
+
+    /**
+     * Get how long ticks currently take.
+     *
+     * @return The tick time in milliseconds, or -1 if it can't be measured.
+     *         Without Paper, how far the time since the last run is over 50 ms.
+     */
+    private double sampleTickMillis() {
+        if (averageTickTime != null) {
+            try {
+                return ((Number) averageTickTime.invoke(lunarClientAPI.getServer())).doubleValue();
+            } catch (ReflectiveOperationException | RuntimeException ex) {
+                // Some servers declare it without supporting it (like region threaded servers), measure it from now on.
+                this.averageTickTime = null;
+            }
+        }
+
+        final long now = System.nanoTime();
+        final long lastRunNanos = this.lastRunNanos;
+        this.lastRunNanos = now;
+        if (lastRunNanos < 0) {
+            return tickMillis;
+        }
+        // The task runs once a tick, a server that keeps up runs it every 50 ms and anything more is the tick running over.
+        final double overrun = Math.max(0, (now - lastRunNanos) / 1e6 - TICK_MILLIS);
+        return tickMillis + (overrun - tickMillis) * SMOOTHING;
+    }
+
+    private void sendNow(Player player, Object packet) {
+        if (packet instanceof LCEncodedPacket) {
+            lunarClientAPI.sendPacket(player, (LCEncodedPacket) packet);
+        } else {
+            lunarClientAPI.sendPacket(player, (LCPacket) packet);
+        }
+    }
+
+    private static Method findAverageTickTime() {
+        try {
+            return Server.class.getMethod("getAverageTickTime");
+        } catch (NoSuchMethodException ex) {
+            return null;
+        }
+    }
+
+    @RequiredArgsConstructor
+    @EqualsAndHashCode
+    private static final class Key {
+
+        private final LCTrafficCategory category;
+        private final UUID player;
+        private final UUID id;
+    }
+
+    @RequiredArgsConstructor
+    private static final class Deferred {
+
+        private final Player player;
+        private final Object packet;
+    }
+}
@@ -0,0 +1,25 @@
+package com.lunarclient.bukkitapi.governor;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * The kinds of traffic the {@link LCLoadGovernor} knows about.
+ * <p>
+ * Cosmetic traffic can be slowed down while the server is lagging, traffic that matters
+ * for gameplay (like cooldowns and titles) is critical and is never slowed down.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum LCTrafficCategory {
+
+    HOLOGRAM(false),
+    NAMETAG(false),
+    TEAMMATES(false),
+    WAYPOINT(false),
+    COOLDOWN(true),
+    TITLE(true);
+
+    private final boolean critical;
+
+}
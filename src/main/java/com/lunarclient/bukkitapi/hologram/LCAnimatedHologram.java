@@ -0,0 +1,196 @@
+package com.lunarclient.bukkitapi.hologram;
+
+import com.google.common.base.Preconditions;
+import com.lunarclient.bukkitapi.LCEncodedPacket;
+import com.lunarclient.bukkitapi.LunarClientAPI;
+import com.lunarclient.bukkitapi.governor.LCTrafficCategory;
+import com.lunarclient.bukkitapi.nethandler.client.LCPacketHologram;
+import com.lunarclient.bukkitapi.nethandler.client.LCPacketHologramRemove;
+import com.lunarclient.bukkitapi.nethandler.client.LCPacketHologramUpdate;
+import lombok.Getter;
+import org.bukkit.entity.Player;
+import org.bukkit.util.Vector;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * A hologram that cycles through a fixed sequence of frames.
+ * <p>
+ * Every frame is encoded once when the hologram is created, identical frames share the
+ * same packet, and the same bytes are sent to every viewer. A viewer is only sent a frame
+ * when it differs from the one they are already seeing.
+ * <p>
+ * Animated holograms are advanced by the {@link LCHologramAnimator}, viewers
+ * may be added and removed from any thread.
+ */
+public final class LCAnimatedHologram {
+
+    @Getter
+    private final UUID id;
+    @Getter
+    private final Vector position;
+    @Getter
+    private final int intervalTicks;
+    private final LCEncodedPacket[] frames;
+    private final LCEncodedPacket spawn;
+    private final LCEncodedPacket remove;
+    private final List<Viewer> viewers = new ArrayList<>();
+    private int frame;
+    private LCEncodedPacket current;
+
+    /**
+     * Create an animated hologram.
+     *
+     * @param id            The unique id of the hologram.
+     * @param position      The location (x, y, z) of where the hologram will be placed in the world.
+     * @param intervalTicks How many ticks each frame is shown for, at least 1.
+     * @param frames        The lines of each frame, in the order they are shown.
+     */
+    public LCAnimatedHologram(UUID id, Vector position, int intervalTicks, List<String[]> frames) {
+        Preconditions.checkArgument(intervalTicks > 0, "Interval must be at least one tick.");
+        Preconditions.checkArgument(!frames.isEmpty(), "Animated hologram needs at least one frame.");
+        this.id = Preconditions.checkNotNull(id, "Hologram id cannot be null.");
+        this.position = position.clone();
+        this.intervalTicks = intervalTicks;
+
+        final Map<List<String>, LCEncodedPacket> encoded = new HashMap<>();
+        this.frames = new LCEncodedPacket[frames.size()];
+        for (int i = 0; i < this.frames.length; i++) {
+            final List<String> lines = Arrays.asList(frames.get(i).clone());
+            this.frames[i] = encoded.computeIfAbsent(lines, key -> new LCEncodedPacket(new LCPacketHologramUpdate(id, key)));
+        }
+
+        this.spawn = new LCEncodedPacket(new LCPacketHologram(id, position.getX(), position.getY(), position.getZ(), Arrays.asList(frames.get(0).clone())));
+        this.remove = new LCEncodedPacket(new LCPacketHologramRemove(id));
+        this.current = this.frames[0];
+    }
+
+    /**
+     * Show the hologram to a player, starting at the frame everyone else is seeing.
+     *
+     * @param player The player to show the hologram to.
+     */
+    public synchronized void show(Player player) {
+        if (this.indexOf(player) >= 0) {
+            return;
+        }
+
+        final LunarClientAPI lunarClientAPI = LunarClientAPI.getInstance();
+        lunarClientAPI.sendPacket(player, spawn);
+        // The spawn packet carries the first frame.
+        final Viewer viewer = new Viewer(player, frames[0]);
+        viewer.update(lunarClientAPI, current);
+        this.viewers.add(viewer);
+    }
+
+    /**
+     * Remove the hologram for a player.
+     *
+     * @param player The player to hide the hologram from.
+     */
+    public synchronized void hide(Player player) {
+        final int index = this.indexOf(player);
+        if (index >= 0) {
+            this.viewers.remove(index);
+            LunarClientAPI.getInstance().sendPacket(player, remove);
+        }
+    }
+
+    /**
+     * Remove the hologram for every viewer.
+     */
+    public synchronized void hideAll() {
+        final LunarClientAPI lunarClientAPI = LunarClientAPI.getInstance();
+        for (int i = 0; i < viewers.size(); i++) {
+            lunarClientAPI.sendPacket(viewers.get(i).player, remove);
+        }
+        this.viewers.clear();
+    }
+
+    /**
+     * Checks if a player is seeing the hologram.
+     *
+     * @param player The player.
+     * @return {@link Boolean} value of weather the hologram is shown to the player.
+     */
+    public synchronized boolean isViewing(Player player) {
+        return this.indexOf(player) >= 0;
+    }
+
+    /**
+     * Get the amount of frames in the animation.
+     *
+     * @return The amount of frames, including duplicates.
+     */
+    public int getFrameCount() {
+        return frames.length;
+    }
+
+    /**
+     * Forget a player without sending anything, as they are no longer online.
+     *
+     * @param player The player that quit.
+     */
+    synchronized void forget(Player player) {
+        final int index = this.indexOf(player);
+        if (index >= 0) {
+            this.viewers.remove(index);
+        }
+    }
+
+    /**
+     * Move to the next frame if it is due on this tick, and send it to every viewer not already seeing it.
+     *
+     * @param tick The tick of the animator.
+     */
+    synchronized void tick(long tick) {
+        // While the server is lagging the animation slows down instead of skipping frames,
+        // skipping would never show some frames when the cadence and frame count share a factor.
+        final LunarClientAPI lunarClientAPI = LunarClientAPI.getInstance();
+        if (tick % ((long) intervalTicks * lunarClientAPI.getLoadGovernor().getCadence(LCTrafficCategory.HOLOGRAM)) != 0) {
+            return;
+        }
+
+        this.frame = (frame + 1) % frames.length;
+        this.current = frames[frame];
+        if (viewers.isEmpty()) {
+            return;
+        }
+
+        for (int i = 0; i < viewers.size(); i++) {
+            viewers.get(i).update(lunarClientAPI, current);
+        }
+    }
+
+    private int indexOf(Player player) {
+        for (int i = 0; i < viewers.size(); i++) {
+            if (viewers.get(i).player.getUniqueId().equals(player.getUniqueId())) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static final class Viewer {
+
+        private final Player player;
+        private LCEncodedPacket shown;
+
+        private Viewer(Player player, LCEncodedPacket shown) {
+            this.player = player;
+            this.shown = shown;
+        }
+
+        private void update(LunarClientAPI lunarClientAPI, LCEncodedPacket frame) {
+            if (shown != frame) {
+                this.shown = frame;
+                lunarClientAPI.sendPacket(player, frame);
+            }
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.lunarclient.bukkitapi.hologram;
+
+import org.bukkit.entity.Player;
+
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Advances every {@link LCAnimatedHologram} from a single task that runs each tick,
+ * instead of every animation running (and allocating in) a timer of its own.
+ * <p>
+ * All animations share the same tick counter, so animations with the same interval
+ * change frame on the same tick. On region threaded servers the task runs on the global region,
+ * animations may be started and stopped from any thread.
+ */
+public final class LCHologramAnimator implements Runnable {
+
+    private final CopyOnWriteArrayList<LCAnimatedHologram> holograms = new CopyOnWriteArrayList<>();
+    private long tick;
+
+    /**
+     * Start animating a hologram. Show it to players with {@link LCAnimatedHologram#show(Player)}.
+     *
+     * @param hologram The hologram to animate.
+     */
+    public void start(LCAnimatedHologram hologram) {
+        this.holograms.addIfAbsent(hologram);
+    }
+
+    /**
+     * Stop animating a hologram and remove it for every viewer.
+     *
+     * @param hologram The hologram to stop.
+     */
+    public void stop(LCAnimatedHologram hologram) {
+        if (this.holograms.remove(hologram)) {
+            hologram.hideAll();
+        }
+    }
+
+    /**
+     * Forget a player in every animation.
+     *
+     * @param player The player that quit.
+     */
+    public void clear(Player player) {
+        for (LCAnimatedHologram hologram : holograms) {
+            hologram.forget(player);
+        }
+    }
+
+    @Override
+    public void run() {
+        final long tick = ++this.tick;
+        for (LCAnimatedHologram hologram : holograms) {
+            hologram.tick(tick);
+        }
+    }
+}
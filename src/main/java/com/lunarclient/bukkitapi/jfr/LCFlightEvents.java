@@ -0,0 +1,54 @@
+package com.lunarclient.bukkitapi.jfr;
+
+/**
+ * Commits the Java Flight Recorder events. This is the only class that creates them,
+ * and it is only loaded once {@link LCFlightRecorder} has checked the JVM supports them.
+ */
+final class LCFlightEvents {
+
+    private LCFlightEvents() {
+    }
+
+    static void packetSend(String player, String packetType, int bytes, long encodeDuration, String result) {
+        final LCPacketSendEvent event = new LCPacketSendEvent();
+        if (event.isEnabled()) {
+            event.player = player;
+            event.packetType = packetType;
+            event.bytes = bytes;
+            event.encodeDuration = encodeDuration;
+            event.result = result;
+            event.commit();
+        }
+    }
+
+    static void packetReceive(String player, String packetType, int bytes, long decodeDuration, long handleDuration) {
+        final LCPacketReceiveEvent event = new LCPacketReceiveEvent();
+        if (event.isEnabled()) {
+            event.player = player;
+            event.packetType = packetType;
+            event.bytes = bytes;
+            event.decodeDuration = decodeDuration;
+            event.handleDuration = handleDuration;
+            event.commit();
+        }
+    }
+
+    static void queueFlush(String player, int packets, long flushDuration) {
+        final LCQueueFlushEvent event = new LCQueueFlushEvent();
+        if (event.isEnabled()) {
+            event.player = player;
+            event.packets = packets;
+            event.flushDuration = flushDuration;
+            event.commit();
+        }
+    }
+
+    static void registerFail(String player, int droppedPackets) {
+        final LCRegisterFailEvent event = new LCRegisterFailEvent();
+        if (event.isEnabled()) {
+            event.player = player;
+            event.droppedPackets = droppedPackets;
+            event.commit();
+        }
+    }
+}
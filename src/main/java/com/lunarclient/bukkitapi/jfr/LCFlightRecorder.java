@@ -0,0 +1,147 @@
+package com.lunarclient.bukkitapi.jfr;
+
+import com.google.common.base.Preconditions;
+import com.lunarclient.bukkitapi.nethandler.LCPacket;
+import lombok.Getter;
+import org.bukkit.entity.Player;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records the work of the API as Java Flight Recorder events, so it can be lined up with
+ * garbage collection pauses and slow ticks in the same recording:
+ * <ul>
+ *     <li>{@code lunarclient.PacketSend}, every packet sent, queued or dropped, with the time spent encoding it.</li>
+ *     <li>{@code lunarclient.PacketReceive}, every packet received, with the time spent decoding and handling it.</li>
+ *     <li>{@code lunarclient.QueueFlush}, the queued packets sent when a player registers.</li>
+ *     <li>{@code lunarclient.RegisterFail}, players that didn't register in time.</li>
+ * </ul>
+ * Receives and queue flushes faster than the threshold are not recorded. Sends are always recorded,
+ * as many are encoded ahead of time and take no time at all, and skipping them would leave the
+ * counts and bytes in the recording short. Each event can be turned off in the recording settings
+ * like any other. Without a recorder set on the API nothing is timed at all.
+ * <p>
+ * Flight Recorder events need Java 11, or Java 8 update 262 or later. On older JVMs
+ * {@link #isAvailable()} is false and no recorder can be created.
+ */
+public final class LCFlightRecorder {
+
+    public static final String ENABLED_PROPERTY = "lunarclient.jfr";
+    public static final String THRESHOLD_PROPERTY = "lunarclient.jfr.thresholdMicros";
+
+    private static final boolean AVAILABLE = isEventClassPresent();
+
+    // Receives and queue flushes that took less than this are not recorded.
+    @Getter
+    private final long thresholdNanos;
+
+    private LCFlightRecorder(long thresholdNanos) {
+        this.thresholdNanos = thresholdNanos;
+    }
+
+    /**
+     * Checks if this JVM supports Flight Recorder events.
+     *
+     * @return {@link Boolean} value of weather a recorder can be created.
+     */
+    public static boolean isAvailable() {
+        return AVAILABLE;
+    }
+
+    /**
+     * Create a recorder.
+     *
+     * @param threshold The shortest receive or queue flush that is recorded, 0 to record every one. Sends are always recorded.
+     * @param unit      The unit of the threshold.
+     * @return The recorder, set it with {@link com.lunarclient.bukkitapi.LunarClientAPI#setFlightRecorder(LCFlightRecorder)}.
+     * @throws IllegalStateException If the JVM doesn't support Flight Recorder events.
+     */
+    public static LCFlightRecorder create(long threshold, TimeUnit unit) {
+        Preconditions.checkState(AVAILABLE, "Java Flight Recorder events are not available on this JVM.");
+        Preconditions.checkArgument(threshold >= 0, "Threshold cannot be negative.");
+        return new LCFlightRecorder(unit.toNanos(threshold));
+    }
+
+    /**
+     * Create a recorder if it was turned on with {@code -Dlunarclient.jfr=true},
+     * with the threshold of {@code -Dlunarclient.jfr.thresholdMicros} (0 by default).
+     *
+     * @return The recorder, or null if it wasn't turned on or the JVM doesn't support it.
+     */
+    public static LCFlightRecorder fromSystemProperties() {
+        if (!AVAILABLE || !Boolean.getBoolean(ENABLED_PROPERTY)) {
+            return null;
+        }
+        return create(Long.getLong(THRESHOLD_PROPERTY, 0L), TimeUnit.MICROSECONDS);
+    }
+
+    /**
+     * Record a packet that was encoded to be sent. Sends are recorded whatever the threshold.
+     *
+     * @param player      The player receiving the packet.
+     * @param packet      The packet.
+     * @param bytes       The size of the encoded packet.
+     * @param encodeNanos How long encoding took, 0 if it was encoded before.
+     */
+    public void packetSent(Player player, LCPacket packet, int bytes, long encodeNanos) {
+        LCFlightEvents.packetSend(player.getName(), packet.getClass().getSimpleName(), bytes, encodeNanos, "SENT");
+    }
+
+    /**
+     * Record a packet that could not be sent as the player hasn't registered.
+     *
+     * @param player The player the packet was meant for.
+     * @param packet The packet.
+     * @param queued If the packet was queued until the player registers, otherwise it was dropped.
+     */
+    public void packetQueued(Player player, LCPacket packet, boolean queued) {
+        LCFlightEvents.packetSend(player.getName(), packet.getClass().getSimpleName(), 0, 0L, queued ? "QUEUED" : "DROPPED");
+    }
+
+    /**
+     * Record a packet received from a player.
+     *
+     * @param player      The player that sent the packet.
+     * @param packet      The decoded packet, or null if it could not be decoded.
+     * @param bytes       The size of the encoded packet.
+     * @param decodeNanos How long decoding took.
+     * @param handleNanos How long handling took on the receiving thread.
+     */
+    public void packetReceived(Player player, LCPacket packet, int bytes, long decodeNanos, long handleNanos) {
+        if (decodeNanos + handleNanos >= thresholdNanos) {
+            LCFlightEvents.packetReceive(player.getName(), packet == null ? null : packet.getClass().getSimpleName(), bytes, decodeNanos, handleNanos);
+        }
+    }
+
+    /**
+     * Record the queued packets of a player being sent as they registered.
+     *
+     * @param player     The player that registered.
+     * @param packets    The amount of packets sent.
+     * @param flushNanos How long sending them took.
+     */
+    public void queueFlushed(Player player, int packets, long flushNanos) {
+        if (flushNanos >= thresholdNanos) {
+            LCFlightEvents.queueFlush(player.getName(), packets, flushNanos);
+        }
+    }
+
+    /**
+     * Record a player that didn't register in time.
+     *
+     * @param player         The player.
+     * @param droppedPackets The amount of queued packets that were dropped.
+     */
+    public void registerFailed(Player player, int droppedPackets) {
+        LCFlightEvents.registerFail(player.getName(), droppedPackets);
+    }
+
+    private static boolean isEventClassPresent() {
+        try {
+            Class.forName("jdk.jfr.Event");
+            return true;
+        } catch (ClassNotFoundException ex) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.lunarclient.bukkitapi.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * A packet received from a player, recorded by the {@link LCFlightRecorder}.
+ */
+@Name("lunarclient.PacketReceive")
+@Label("Lunar Client Packet Receive")
+@Category("Lunar Client")
+@Description("A packet received from a player, decoded and handled.")
+public final class LCPacketReceiveEvent extends Event {
+
+    @Label("Player")
+    String player;
+
+    @Label("Packet Type")
+    @Description("The type of the packet, null if it could not be decoded.")
+    String packetType;
+
+    @Label("Bytes")
+    int bytes;
+
+    @Label("Decode Duration")
+    @Timespan(Timespan.NANOSECONDS)
+    long decodeDuration;
+
+    @Label("Handle Duration")
+    @Description("Time spent in handlers on the receiving thread, handlers moved to another thread are not included.")
+    @Timespan(Timespan.NANOSECONDS)
+    long handleDuration;
+}
@@ -0,0 +1,36 @@
+package com.lunarclient.bukkitapi.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * A packet sent to, queued for or dropped for a player, recorded by the {@link LCFlightRecorder}.
+ */
+@Name("lunarclient.PacketSend")
+@Label("Lunar Client Packet Send")
+@Category("Lunar Client")
+@Description("A packet sent to, queued for or dropped for a player.")
+public final class LCPacketSendEvent extends Event {
+
+    @Label("Player")
+    String player;
+
+    @Label("Packet Type")
+    String packetType;
+
+    @Label("Bytes")
+    @Description("The size of the encoded packet, 0 if it was queued or dropped before being encoded.")
+    int bytes;
+
+    @Label("Encode Duration")
+    @Timespan(Timespan.NANOSECONDS)
+    long encodeDuration;
+
+    @Label("Result")
+    @Description("SENT, QUEUED until the player registers, or DROPPED as the player didn't register.")
+    String result;
+}
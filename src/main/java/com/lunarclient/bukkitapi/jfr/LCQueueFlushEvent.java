@@ -0,0 +1,28 @@
+package com.lunarclient.bukkitapi.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * The queued packets of a player sent when they registered, recorded by the {@link LCFlightRecorder}.
+ */
+@Name("lunarclient.QueueFlush")
+@Label("Lunar Client Queue Flush")
+@Category("Lunar Client")
+@Description("The packets queued for a player sent when they registered.")
+public final class LCQueueFlushEvent extends Event {
+
+    @Label("Player")
+    String player;
+
+    @Label("Packets")
+    int packets;
+
+    @Label("Flush Duration")
+    @Timespan(Timespan.NANOSECONDS)
+    long flushDuration;
+}
@@ -0,0 +1,23 @@
+package com.lunarclient.bukkitapi.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A player that didn't register in time, recorded by the {@link LCFlightRecorder}.
+ */
+@Name("lunarclient.RegisterFail")
+@Label("Lunar Client Register Fail")
+@Category("Lunar Client")
+@Description("A player that did not register in time, with the queued packets that were dropped.")
+public final class LCRegisterFailEvent extends Event {
+
+    @Label("Player")
+    String player;
+
+    @Label("Dropped Packets")
+    int droppedPackets;
+}
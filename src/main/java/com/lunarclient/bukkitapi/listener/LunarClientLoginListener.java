@@ -1,27 +1,86 @@
 package com.lunarclient.bukkitapi.listener;
 
+import com.lunarclient.bukkitapi.LCEncodedPacket;
 import com.lunarclient.bukkitapi.LunarClientAPI;
+import com.lunarclient.bukkitapi.bundle.LCCompiledBundle;
 import com.lunarclient.bukkitapi.event.LCPlayerRegisterEvent;
-import com.lunarclient.bukkitapi.nethandler.client.LCPacketUpdateWorld;
+import com.lunarclient.bukkitapi.presence.LCPlayerState;
+import com.lunarclient.bukkitapi.presence.LCPresenceStore;
+import com.lunarclient.bukkitapi.transport.LCNettyTransport;
 import lombok.RequiredArgsConstructor;
-import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.player.*;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+
 @RequiredArgsConstructor
 public class LunarClientLoginListener implements Listener {
 
     private final LunarClientAPI lunarClientAPI;
+    // States loaded from the presence store while the player was logging in.
+    private final Map<UUID, LCPlayerState> prefetched = new ConcurrentHashMap<>();
+    // Players registered from the presence store that haven't registered the channel themselves yet.
+    private final Set<UUID> presumed = Collections.newSetFromMap(new ConcurrentHashMap<>());
+
+    @EventHandler (priority = EventPriority.MONITOR)
+    public void onPreLogin(AsyncPlayerPreLoginEvent event) {
+        final LCPresenceStore store = lunarClientAPI.getPresenceStore();
+        if (store == null || event.getLoginResult() != AsyncPlayerPreLoginEvent.Result.ALLOWED) {
+            return;
+        }
+
+        try {
+            final LCPlayerState state = store.load(event.getUniqueId());
+            if (state != null) {
+                this.prefetched.put(event.getUniqueId(), state);
+            }
+        } catch (RuntimeException ex) {
+            lunarClientAPI.getLogger().log(Level.WARNING, "Could not load the Lunar Client presence of " + event.getName(), ex);
+        }
+    }
+
+    @EventHandler (priority = EventPriority.MONITOR)
+    public void onLogin(PlayerLoginEvent event) {
+        if (event.getResult() != PlayerLoginEvent.Result.ALLOWED) {
+            this.prefetched.remove(event.getPlayer().getUniqueId());
+        }
+    }
 
     @EventHandler (priority = EventPriority.LOWEST)
     public void onPlayerJoin(PlayerJoinEvent event) {
         final Player player = event.getPlayer();
 
-        Bukkit.getScheduler().runTaskLater(lunarClientAPI, () -> {
-            if (!lunarClientAPI.isRunningLunarClient(player)) {
+        // The player was running Lunar Client on the server they came from, so restore their staff modules.
+        final LCPlayerState state = this.prefetched.remove(player.getUniqueId());
+        if (state != null && !lunarClientAPI.isRunningLunarClient(player)) {
+            lunarClientAPI.getStaffModuleTracker().update(player.getUniqueId(), state.getStaffModules());
+
+            // Don't hold their packets until the client registers the channel again. Only the Netty transport
+            // writes to the connection directly, the messenger drops messages on channels the client hasn't
+            // registered yet, so there the modules are sent once the client registers like for everyone else.
+            if (lunarClientAPI.getTransport() instanceof LCNettyTransport) {
+                this.presumed.add(player.getUniqueId());
+                this.register(player);
+            }
+        }
+
+        lunarClientAPI.getScheduler().runLater(lunarClientAPI, player, () -> {
+            if (this.presumed.remove(player.getUniqueId())) {
+                // The store was wrong, the player isn't running Lunar Client anymore.
+                lunarClientAPI.unregisterPlayer(player, false);
+                this.updateStore(store -> store.remove(player.getUniqueId()));
+            } else if (!lunarClientAPI.isRunningLunarClient(player)) {
                 lunarClientAPI.failPlayerRegister(player);
             }
         }, 2 * 20L);
@@ -34,32 +93,91 @@ public class LunarClientLoginListener implements Listener {
         }
         final Player player = event.getPlayer();
 
-        this.lunarClientAPI.registerPlayer(player);
-        this.lunarClientAPI.getServer().getPluginManager().callEvent(new LCPlayerRegisterEvent(event.getPlayer()));
+        // Already registered from the presence store, the client just confirmed it.
+        if (this.presumed.remove(player.getUniqueId())) {
+            return;
+        }
 
-        this.updateWorld(event.getPlayer());
+        this.register(player);
+        this.saveState(player);
     }
 
     @EventHandler
     public void onUnregister(PlayerUnregisterChannelEvent event) {
         if (event.getChannel().equalsIgnoreCase(LunarClientAPI.MESSAGE_CHANNEL)) {
+            final UUID uuid = event.getPlayer().getUniqueId();
+            this.presumed.remove(uuid);
             lunarClientAPI.unregisterPlayer(event.getPlayer(), false);
+            this.updateStore(store -> store.remove(uuid));
         }
     }
 
     @EventHandler
     public void onUnregister(PlayerQuitEvent event) {
-        lunarClientAPI.unregisterPlayer(event.getPlayer(), true);
+        final Player player = event.getPlayer();
+        this.prefetched.remove(player.getUniqueId());
+        this.presumed.remove(player.getUniqueId());
+
+        // Save before unregistering, that forgets the staff modules of the player.
+        if (lunarClientAPI.isRunningLunarClient(player)) {
+            this.saveState(player);
+        }
+        lunarClientAPI.unregisterPlayer(player, true);
     }
 
     @EventHandler (priority = EventPriority.MONITOR, ignoreCancelled = true)
     public void onWorldChange(PlayerChangedWorldEvent event) {
-        updateWorld(event.getPlayer());
+        final Player player = event.getPlayer();
+        final LCCompiledBundle bundle = lunarClientAPI.getFeatureBundle();
+        updateWorld(player, bundle == null ? Collections.emptyList() : bundle.getWorldPayload(lunarClientAPI.getWorldIdentifier(player.getWorld())));
+    }
+
+    private void register(Player player) {
+        this.lunarClientAPI.registerPlayer(player);
+        this.lunarClientAPI.getServer().getPluginManager().callEvent(new LCPlayerRegisterEvent(player));
+
+        final LCCompiledBundle bundle = lunarClientAPI.getFeatureBundle();
+        this.updateWorld(player, bundle == null ? Collections.emptyList() : bundle.getJoinPayload(lunarClientAPI.getWorldIdentifier(player.getWorld())));
+    }
+
+    private void saveState(Player player) {
+        final UUID uuid = player.getUniqueId();
+        final LCPlayerState state = new LCPlayerState(lunarClientAPI.getStaffModuleTracker().getState(uuid), System.currentTimeMillis());
+        this.updateStore(store -> store.save(uuid, state));
     }
 
-    private void updateWorld(Player player) {
-        String worldIdentifier = lunarClientAPI.getWorldIdentifier(player.getWorld());
+    private void updateStore(Consumer<LCPresenceStore> update) {
+        final LCPresenceStore store = lunarClientAPI.getPresenceStore();
+        if (store == null) {
+            return;
+        }
+
+        // Stores may block, and the plugin may already be disabled when the last players quit.
+        final Runnable task = () -> {
+            try {
+                update.accept(store);
+            } catch (RuntimeException ex) {
+                lunarClientAPI.getLogger().log(Level.WARNING, "Could not update the Lunar Client presence store.", ex);
+            }
+        };
+        if (lunarClientAPI.isEnabled()) {
+            lunarClientAPI.getScheduler().runAsync(lunarClientAPI, task);
+        } else {
+            task.run();
+        }
+    }
+
+    private void updateWorld(Player player, List<LCEncodedPacket> bundlePayload) {
+        final LCEncodedPacket update = lunarClientAPI.getWorldUpdate(player.getWorld());
+        if (bundlePayload.isEmpty()) {
+            lunarClientAPI.sendPacket(player, update);
+            return;
+        }
 
-        lunarClientAPI.sendPacket(player, new LCPacketUpdateWorld(worldIdentifier));
+        // The world goes first, so the bundle's waypoints arrive in a known world, all in one write.
+        final List<LCEncodedPacket> packets = new ArrayList<>(bundlePayload.size() + 1);
+        packets.add(update);
+        packets.addAll(bundlePayload);
+        lunarClientAPI.sendEncodedPackets(player, packets);
     }
 }
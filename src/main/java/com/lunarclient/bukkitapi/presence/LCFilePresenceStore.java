@@ -0,0 +1,148 @@
+package com.lunarclient.bukkitapi.presence;
+
+import com.google.common.base.Preconditions;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * A {@link LCPresenceStore} kept in a local file.
+ * <p>
+ * Several servers on the same machine can point at the same file for testing a network.
+ * Every load, save and remove reads the file again under a file lock and merges its change
+ * into it, so servers don't overwrite each other's players. States older than the time to
+ * live are dropped whenever the file is written. Use a shared database for production.
+ * <p>
+ * File layout:
+ * <pre>
+ * [int count] ([long uuid msb] [long uuid lsb] [int staff modules] [long saved at])...
+ * </pre>
+ */
+public final class LCFilePresenceStore implements LCPresenceStore {
+
+    // File locks are held by the whole JVM, so stores on the same file in one JVM take turns here first.
+    private static final Object JVM_LOCK = new Object();
+
+    private final File file;
+    // Locked instead of the file itself, as the file is replaced on every write.
+    private final File lockFile;
+    private final long ttlMillis;
+
+    /**
+     * Create a store backed by a file that forgets states after an hour.
+     *
+     * @param file The file the store is kept in.
+     * @throws IOException If the file exists but can't be read.
+     */
+    public LCFilePresenceStore(File file) throws IOException {
+        this(file, 1, TimeUnit.HOURS);
+    }
+
+    /**
+     * Create a store backed by a file.
+     *
+     * @param file The file the store is kept in.
+     * @param ttl  How long a state is kept after it was saved.
+     * @param unit The unit of the time to live.
+     * @throws IOException If the file exists but can't be read.
+     */
+    public LCFilePresenceStore(File file, long ttl, TimeUnit unit) throws IOException {
+        Preconditions.checkArgument(ttl > 0, "Time to live must be positive.");
+        this.file = file;
+        this.lockFile = new File(file.getPath() + ".lock");
+        this.ttlMillis = unit.toMillis(ttl);
+        // Fail now rather than on the first player if the file is unreadable.
+        this.read();
+    }
+
+    @Override
+    public LCPlayerState load(UUID player) {
+        return this.update(states -> states.get(player), false);
+    }
+
+    @Override
+    public void save(UUID player, LCPlayerState state) {
+        this.update(states -> states.put(player, state), true);
+    }
+
+    @Override
+    public void remove(UUID player) {
+        this.update(states -> states.remove(player), true);
+    }
+
+    /**
+     * Read the file under the lock, apply a change and write the file back.
+     *
+     * @param action The change, or lookup, to apply to the states in the file.
+     * @param write  If the action changes the states. The file is also written when expired states were dropped.
+     * @return The result of the action.
+     */
+    private <T> T update(Function<Map<UUID, LCPlayerState>, T> action, boolean write) {
+        synchronized (JVM_LOCK) {
+            try {
+                final File parent = file.getAbsoluteFile().getParentFile();
+                if (parent != null) {
+                    Files.createDirectories(parent.toPath());
+                }
+
+                try (FileChannel channel = FileChannel.open(lockFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                     FileLock lock = channel.lock()) {
+                    final Map<UUID, LCPlayerState> states = this.read();
+                    final long now = System.currentTimeMillis();
+                    final boolean expired = states.values().removeIf(state -> now - state.getSavedAt() > ttlMillis);
+
+                    final T result = action.apply(states);
+                    if (write || expired) {
+                        this.write(states);
+                    }
+                    return result;
+                }
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Could not update the Lunar Client presence in " + file, ex);
+            }
+        }
+    }
+
+    private Map<UUID, LCPlayerState> read() throws IOException {
+        final Map<UUID, LCPlayerState> states = new HashMap<>();
+        if (!file.isFile()) {
+            return states;
+        }
+
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(file.toPath()))) {
+            final int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                final UUID player = new UUID(in.readLong(), in.readLong());
+                states.put(player, new LCPlayerState(in.readInt(), in.readLong()));
+            }
+        }
+        return states;
+    }
+
+    private void write(Map<UUID, LCPlayerState> states) throws IOException {
+        final File temp = new File(file.getPath() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(temp.toPath()))) {
+            out.writeInt(states.size());
+            for (Map.Entry<UUID, LCPlayerState> entry : states.entrySet()) {
+                out.writeLong(entry.getKey().getMostSignificantBits());
+                out.writeLong(entry.getKey().getLeastSignificantBits());
+                out.writeInt(entry.getValue().getStaffModules());
+                out.writeLong(entry.getValue().getSavedAt());
+            }
+        }
+        Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
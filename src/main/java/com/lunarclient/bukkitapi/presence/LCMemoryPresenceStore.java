@@ -0,0 +1,81 @@
+package com.lunarclient.bukkitapi.presence;
+
+import com.google.common.base.Preconditions;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@link LCPresenceStore} that only lives in memory.
+ * <p>
+ * This is only shared by servers running in the same JVM, so it is mostly useful
+ * for testing, or to keep state across a reload of the same server.
+ * <p>
+ * States are forgotten once they are older than the time to live, so players
+ * that left the network don't pile up.
+ */
+public class LCMemoryPresenceStore implements LCPresenceStore {
+
+    private static final long PRUNE_INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    protected final Map<UUID, LCPlayerState> states = new ConcurrentHashMap<>();
+    protected final long ttlMillis;
+    private volatile long lastPrune;
+
+    /**
+     * Create a store that forgets states after an hour.
+     */
+    public LCMemoryPresenceStore() {
+        this(1, TimeUnit.HOURS);
+    }
+
+    /**
+     * Create a store.
+     *
+     * @param ttl  How long a state is kept after it was saved.
+     * @param unit The unit of the time to live.
+     */
+    public LCMemoryPresenceStore(long ttl, TimeUnit unit) {
+        Preconditions.checkArgument(ttl > 0, "Time to live must be positive.");
+        this.ttlMillis = unit.toMillis(ttl);
+    }
+
+    @Override
+    public LCPlayerState load(UUID player) {
+        final LCPlayerState state = states.get(player);
+        if (state != null && this.isExpired(state, System.currentTimeMillis())) {
+            this.states.remove(player, state);
+            return null;
+        }
+        return state;
+    }
+
+    @Override
+    public void save(UUID player, LCPlayerState state) {
+        states.put(player, state);
+
+        final long now = System.currentTimeMillis();
+        if (now - lastPrune >= PRUNE_INTERVAL_MILLIS) {
+            this.lastPrune = now;
+            this.states.values().removeIf(saved -> this.isExpired(saved, now));
+        }
+    }
+
+    @Override
+    public void remove(UUID player) {
+        states.remove(player);
+    }
+
+    /**
+     * Checks if a state is older than the time to live.
+     *
+     * @param state The state.
+     * @param now   The current time in epoch milliseconds.
+     * @return {@link Boolean} value of weather the state should be forgotten.
+     */
+    protected boolean isExpired(LCPlayerState state, long now) {
+        return now - state.getSavedAt() > ttlMillis;
+    }
+}
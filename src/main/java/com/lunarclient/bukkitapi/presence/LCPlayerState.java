@@ -0,0 +1,18 @@
+package com.lunarclient.bukkitapi.presence;
+
+import lombok.Data;
+
+/**
+ * The Lunar Client state of a player that is carried between servers.
+ * <p>
+ * A player only has a state while they are known to be running Lunar Client.
+ */
+@Data
+public final class LCPlayerState {
+
+    // The enabled staff modules, see LCStaffModuleTracker.
+    private final int staffModules;
+    // When the state was saved, in epoch milliseconds.
+    private final long savedAt;
+
+}
@@ -0,0 +1,40 @@
+package com.lunarclient.bukkitapi.presence;
+
+import java.util.UUID;
+
+/**
+ * Shared storage of which players are running Lunar Client, and their Lunar Client state,
+ * for networks where players move between several servers behind a proxy.
+ * <p>
+ * When a player that is known to be running Lunar Client joins, the server can treat
+ * them as registered straight away instead of waiting for the client to register again.
+ * <p>
+ * Methods are called off the main thread (except for players quitting while the plugin disables),
+ * so implementations backed by remote storage (a database, Redis, etc.) may block.
+ */
+public interface LCPresenceStore {
+
+    /**
+     * Load the state of a player.
+     *
+     * @param player The unique id of the player.
+     * @return The state of the player, or null if they aren't known to be running Lunar Client.
+     */
+    LCPlayerState load(UUID player);
+
+    /**
+     * Store the state of a player that is running Lunar Client.
+     *
+     * @param player The unique id of the player.
+     * @param state  The state of the player.
+     */
+    void save(UUID player, LCPlayerState state);
+
+    /**
+     * Forget a player, they are no longer known to be running Lunar Client.
+     *
+     * @param player The unique id of the player.
+     */
+    void remove(UUID player);
+
+}
@@ -0,0 +1,17 @@
+package com.lunarclient.bukkitapi.recorder;
+
+/**
+ * Which way a recorded packet was travelling.
+ */
+public enum LCPacketDirection {
+
+    /**
+     * Sent by the client to the server.
+     */
+    INBOUND,
+    /**
+     * Sent by the server to the client.
+     */
+    OUTBOUND
+
+}
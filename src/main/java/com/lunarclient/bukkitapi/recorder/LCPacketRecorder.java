@@ -0,0 +1,323 @@
+package com.lunarclient.bukkitapi.recorder;
+
+import com.google.common.base.Preconditions;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import lombok.Getter;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Appends every encoded Lunar Client packet sent or received to a compact binary log.
+ * <p>
+ * Recording is opt-in, set a recorder with {@link com.lunarclient.bukkitapi.LunarClientAPI#setPacketRecorder(LCPacketRecorder)}.
+ * Records are collected in a direct buffer, and full buffers are written to disk by a single
+ * background thread, so the cost on the sending thread is a copy into that buffer and it never
+ * waits on the disk. If the disk can't keep up and every buffer is waiting to be written,
+ * records are dropped (see {@link #getDropped()}) instead of holding up the server.
+ * <p>
+ * Once a file grows past the rotation size a new file is started in the same directory.
+ * Recordings can be fed back through the API with {@link LCPacketReplayer}.
+ * <p>
+ * File layout:
+ * <pre>
+ * HEADER: [int magic] [short version] [long start epoch millis]
+ * RECORD: [long nanos since start] [byte direction] [long uuid msb] [long uuid lsb] [int length] [bytes]
+ * </pre>
+ */
+public final class LCPacketRecorder implements Closeable {
+
+    static final int MAGIC = 0x4C435243; // LCRC
+    static final short VERSION = 1;
+    static final int HEADER_SIZE = 4 + 2 + 8;
+    static final int RECORD_HEADER_SIZE = 8 + 1 + 8 + 8 + 4;
+    static final String EXTENSION = ".lcrec";
+
+    private static final Logger LOGGER = Logger.getLogger(LCPacketRecorder.class.getName());
+    // The buffer being filled, plus the ones waiting for the writer.
+    private static final int MAX_BUFFERS = 4;
+
+    private final File directory;
+    private final long rotateBytes;
+    private final int bufferBytes;
+    private final long startNanos;
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, "Lunar Client Packet Recorder");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // Buffers the writer is done with.
+    private final Queue<ByteBuffer> free = new ConcurrentLinkedQueue<>();
+
+    // Only used by the writer once the first file is open.
+    private FileChannel channel;
+    private int fileIndex;
+    private volatile IOException failure;
+
+    private ByteBuffer buffer;
+    private int buffers;
+    // The size of the current file once everything handed to the writer is written.
+    private long fileBytes;
+    @Getter
+    private volatile long dropped;
+    @Getter
+    private volatile boolean closed;
+
+    /**
+     * Create a recorder that writes to the given directory.
+     *
+     * @param directory   The directory recordings are written to, created if it doesn't exist.
+     * @param rotateBytes The size in bytes after which a new recording file is started.
+     * @param bufferBytes The size in bytes of the buffers records are collected in before being written.
+     * @throws IOException If the first recording file can't be created.
+     */
+    public LCPacketRecorder(File directory, long rotateBytes, int bufferBytes) throws IOException {
+        Preconditions.checkArgument(rotateBytes > HEADER_SIZE, "Rotation size must be larger than the file header.");
+        Preconditions.checkArgument(bufferBytes >= RECORD_HEADER_SIZE, "Buffer must fit at least a record header.");
+        this.directory = directory;
+        this.rotateBytes = rotateBytes;
+        this.bufferBytes = bufferBytes;
+        this.buffer = ByteBuffer.allocateDirect(bufferBytes);
+        this.buffers = 1;
+        this.startNanos = System.nanoTime();
+
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Could not create recording directory " + directory);
+        }
+        // Opened here rather than by the writer, so a recorder that can't write fails straight away.
+        this.openNextFile();
+        this.fileBytes = HEADER_SIZE;
+    }
+
+    /**
+     * Create a recorder with a 64MB rotation size and a 256KB buffer.
+     *
+     * @param directory The directory recordings are written to, created if it doesn't exist.
+     * @throws IOException If the first recording file can't be created.
+     */
+    public LCPacketRecorder(File directory) throws IOException {
+        this(directory, 64L * 1024 * 1024, 256 * 1024);
+    }
+
+    /**
+     * Append a single encoded packet to the recording.
+     * <p>
+     * Failing to write never affects the packet itself, the recorder
+     * stops recording and logs the failure instead.
+     *
+     * @param direction Which way the packet was travelling.
+     * @param player    The player that sent or received the packet.
+     * @param data      The encoded packet.
+     */
+    public void record(LCPacketDirection direction, UUID player, byte[] data) {
+        this.record(direction, player, Unpooled.wrappedBuffer(data));
+    }
+
+    /**
+     * Append a single encoded packet to the recording.
+     * The readable bytes of the buffer are copied, its indexes are left untouched.
+     *
+     * @param direction Which way the packet was travelling.
+     * @param player    The player that sent or received the packet.
+     * @param data      The encoded packet.
+     */
+    public synchronized void record(LCPacketDirection direction, UUID player, ByteBuf data) {
+        if (closed) {
+            return;
+        }
+
+        final int length = data.readableBytes();
+        final int recordSize = RECORD_HEADER_SIZE + length;
+        if (fileBytes + buffer.position() + recordSize > rotateBytes && fileBytes + buffer.position() > HEADER_SIZE) {
+            if (buffer.position() > 0 && !this.handOff()) {
+                this.dropped++;
+                return;
+            }
+            this.writer.execute(this::rotate);
+            this.fileBytes = HEADER_SIZE;
+        }
+
+        if (buffer.remaining() < recordSize && buffer.position() > 0 && !this.handOff()) {
+            this.dropped++;
+            return;
+        }
+
+        // Records larger than a whole buffer are copied into one of their own.
+        final ByteBuffer target = buffer.remaining() >= recordSize ? buffer : ByteBuffer.allocate(recordSize);
+        target.putLong(System.nanoTime() - startNanos);
+        target.put((byte) direction.ordinal());
+        target.putLong(player.getMostSignificantBits());
+        target.putLong(player.getLeastSignificantBits());
+        target.putInt(length);
+
+        final int limit = target.limit();
+        target.limit(target.position() + length);
+        data.getBytes(data.readerIndex(), target);
+        target.limit(limit);
+
+        if (target != buffer) {
+            target.flip();
+            this.fileBytes += recordSize;
+            this.writer.execute(() -> this.write(target));
+        }
+    }
+
+    /**
+     * Write everything that has been recorded so far to disk, waiting until it is written.
+     *
+     * @throws IOException If the recording file can't be written.
+     */
+    public synchronized void flush() throws IOException {
+        if (closed) {
+            return;
+        }
+        this.drain();
+        final IOException failure = this.failure;
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (writer.isShutdown()) {
+            return;
+        }
+
+        this.closed = true;
+        try {
+            if (failure == null) {
+                this.drain();
+            }
+        } finally {
+            this.writer.execute(this::closeChannel);
+            this.writer.shutdown();
+        }
+
+        final IOException failure = this.failure;
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Hand the current buffer to the writer and continue in a free one.
+     *
+     * @return {@link Boolean} value of weather a buffer was free, if not the current buffer is kept.
+     */
+    private boolean handOff() {
+        ByteBuffer next = free.poll();
+        if (next == null) {
+            if (buffers >= MAX_BUFFERS) {
+                return false;
+            }
+            next = ByteBuffer.allocateDirect(bufferBytes);
+            this.buffers++;
+        }
+
+        final ByteBuffer full = this.buffer;
+        full.flip();
+        this.fileBytes += full.remaining();
+        this.buffer = next;
+        this.writer.execute(() -> {
+            this.write(full);
+            full.clear();
+            this.free.add(full);
+        });
+        return true;
+    }
+
+    /**
+     * Hand everything buffered to the writer and wait until it is written.
+     */
+    private void drain() throws IOException {
+        while (buffer.position() > 0 && !this.handOff()) {
+            this.await(writer.submit(() -> {
+            }));
+        }
+        this.await(writer.submit(() -> {
+        }));
+    }
+
+    private void await(Future<?> task) throws IOException {
+        try {
+            task.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while writing the packet recording.");
+        } catch (ExecutionException ex) {
+            throw new IOException("Failed to write the packet recording.", ex.getCause());
+        }
+    }
+
+    // Everything below runs on the writer, apart from opening the first file.
+
+    private void write(ByteBuffer source) {
+        if (failure != null) {
+            return;
+        }
+        try {
+            while (source.hasRemaining()) {
+                channel.write(source);
+            }
+        } catch (IOException ex) {
+            this.fail(ex);
+        }
+    }
+
+    private void rotate() {
+        if (failure != null) {
+            return;
+        }
+        try {
+            this.channel.close();
+            this.openNextFile();
+        } catch (IOException ex) {
+            this.fail(ex);
+        }
+    }
+
+    private void fail(IOException ex) {
+        LOGGER.log(Level.WARNING, "Failed to write Lunar Client packet recording, recording stopped.", ex);
+        this.failure = ex;
+        this.closed = true;
+        this.closeChannel();
+    }
+
+    private void closeChannel() {
+        try {
+            this.channel.close();
+        } catch (IOException ignored) {
+            // Already done with the file, nothing more to report.
+        }
+    }
+
+    private void openNextFile() throws IOException {
+        final File file = new File(directory, String.format("lunar-%d-%05d%s", System.currentTimeMillis(), fileIndex++, EXTENSION));
+        this.channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+
+        final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC);
+        header.putShort(VERSION);
+        header.putLong(System.currentTimeMillis());
+        header.flip();
+        while (header.hasRemaining()) {
+            channel.write(header);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.lunarclient.bukkitapi.recorder;
+
+import lombok.Getter;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+
+/**
+ * A single recording file written by {@link LCPacketRecorder}, mapped into memory for reading.
+ */
+public final class LCPacketRecording implements Iterable<LCRecordedPacket> {
+
+    private static final LCPacketDirection[] DIRECTIONS = LCPacketDirection.values();
+
+    @Getter
+    private final File file;
+    @Getter
+    private final long startedAt;
+    private final MappedByteBuffer buffer;
+
+    /**
+     * Map a recording file and validate its header.
+     *
+     * @param file The recording file.
+     * @throws IOException If the file can't be read or is not a recording.
+     */
+    public LCPacketRecording(File file) throws IOException {
+        this.file = file;
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            this.buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        if (buffer.remaining() < LCPacketRecorder.HEADER_SIZE || buffer.getInt() != LCPacketRecorder.MAGIC) {
+            throw new IOException(file + " is not a Lunar Client packet recording.");
+        }
+        final short version = buffer.getShort();
+        if (version != LCPacketRecorder.VERSION) {
+            throw new IOException(file + " was recorded with an unsupported version [" + version + "]");
+        }
+        this.startedAt = buffer.getLong();
+    }
+
+    /**
+     * Iterate the records in the order they were written.
+     * A record that was cut off (for example by a crash) ends the iteration.
+     *
+     * @return An iterator over every complete record in the file.
+     */
+    @Override
+    public Iterator<LCRecordedPacket> iterator() {
+        final ByteBuffer records = buffer.duplicate();
+        records.position(LCPacketRecorder.HEADER_SIZE);
+
+        return new Iterator<LCRecordedPacket>() {
+            private LCRecordedPacket next = read();
+
+            private LCRecordedPacket read() {
+                if (records.remaining() < LCPacketRecorder.RECORD_HEADER_SIZE) {
+                    return null;
+                }
+                final long timestamp = records.getLong();
+                final int direction = records.get();
+                final UUID player = new UUID(records.getLong(), records.getLong());
+                final int length = records.getInt();
+                if (direction < 0 || direction >= DIRECTIONS.length || length < 0 || records.remaining() < length) {
+                    return null;
+                }
+
+                final byte[] data = new byte[length];
+                records.get(data);
+                return new LCRecordedPacket(timestamp, DIRECTIONS[direction], player, data);
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public LCRecordedPacket next() {
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+                final LCRecordedPacket current = next;
+                next = read();
+                return current;
+            }
+        };
+    }
+}
@@ -0,0 +1,157 @@
+package com.lunarclient.bukkitapi.recorder;
+
+import com.google.common.base.Preconditions;
+import com.lunarclient.bukkitapi.LunarClientDefaultNetHandler;
+import lombok.Getter;
+import org.bukkit.entity.Player;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Feeds recordings written by {@link LCPacketRecorder} back into a {@link LCReplayTarget},
+ * using a stub {@link Player} for every recorded player.
+ * <p>
+ * In a running server, {@link LCReplayTarget#api(com.lunarclient.bukkitapi.LunarClientAPI)} feeds the
+ * recording through the API's receive and send paths. {@link LCReplayTarget#decoding(com.lunarclient.bukkitapi.nethandler.server.LCNetHandlerServer)}
+ * does not need a running server, so it can be used to benchmark decoding against real traffic.
+ * It can be run on its own with:
+ * <pre>
+ * java -cp &lt;classpath&gt; com.lunarclient.bukkitapi.recorder.LCPacketReplayer &lt;file or directory&gt; [speed]
+ * </pre>
+ */
+public final class LCPacketReplayer {
+
+    private final LCReplayTarget target;
+    private final double speed;
+    private final Map<UUID, Player> players = new HashMap<>();
+
+    /**
+     * Create a replayer.
+     *
+     * @param target The target that receives each recorded packet.
+     * @param speed  How much faster than real time to replay, 2 is twice as fast.
+     *               0 replays every packet as fast as possible.
+     */
+    public LCPacketReplayer(LCReplayTarget target, double speed) {
+        Preconditions.checkArgument(speed >= 0, "Replay speed cannot be negative.");
+        this.target = target;
+        this.speed = speed;
+    }
+
+    /**
+     * Replay recordings one after another, in the order given.
+     *
+     * @param recordings The recordings to replay.
+     * @return The statistics of the replay.
+     */
+    public Result replay(List<LCPacketRecording> recordings) {
+        final Result result = new Result();
+        final long startedAt = System.nanoTime();
+        long firstTimestamp = -1;
+
+        for (LCPacketRecording recording : recordings) {
+            for (LCRecordedPacket packet : recording) {
+                if (firstTimestamp < 0) {
+                    firstTimestamp = packet.getTimestamp();
+                }
+                if (speed > 0) {
+                    final long due = startedAt + (long) ((packet.getTimestamp() - firstTimestamp) / speed);
+                    final long wait = due - System.nanoTime();
+                    if (wait > 0) {
+                        LockSupport.parkNanos(wait);
+                    }
+                }
+
+                final Player player = players.computeIfAbsent(packet.getPlayer(), LCStubPlayer::create);
+                final long before = System.nanoTime();
+                if (packet.getDirection() == LCPacketDirection.INBOUND) {
+                    target.inbound(player, packet.getData());
+                    result.inbound++;
+                } else {
+                    target.outbound(player, packet.getData());
+                    result.outbound++;
+                }
+                result.handlerNanos += System.nanoTime() - before;
+                result.bytes += packet.getData().length;
+            }
+        }
+
+        result.players = players.size();
+        result.elapsedNanos = System.nanoTime() - startedAt;
+        for (Player player : players.values()) {
+            target.finished(player);
+        }
+        this.players.clear();
+        return result;
+    }
+
+    /**
+     * Open every recording in a directory (sorted by name, which is the order they were written)
+     * or a single recording file.
+     *
+     * @param file A recording file, or a directory of recordings.
+     * @return The opened recordings.
+     * @throws IOException If a recording can't be read.
+     */
+    public static List<LCPacketRecording> open(File file) throws IOException {
+        final List<LCPacketRecording> recordings = new ArrayList<>();
+        if (!file.isDirectory()) {
+            recordings.add(new LCPacketRecording(file));
+            return recordings;
+        }
+
+        final File[] files = file.listFiles((dir, name) -> name.endsWith(LCPacketRecorder.EXTENSION));
+        if (files == null) {
+            throw new IOException("Could not list recordings in " + file);
+        }
+        Arrays.sort(files);
+        for (File recording : files) {
+            recordings.add(new LCPacketRecording(recording));
+        }
+        return recordings;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: LCPacketReplayer <file or directory> [speed]");
+            System.exit(1);
+        }
+
+        final double speed = args.length > 1 ? Double.parseDouble(args[1]) : 0;
+        final LCPacketReplayer replayer = new LCPacketReplayer(LCReplayTarget.decoding(new LunarClientDefaultNetHandler()), speed);
+        System.out.println(replayer.replay(open(new File(args[0]))));
+    }
+
+    /**
+     * The statistics of a single replay.
+     */
+    @Getter
+    public static final class Result {
+
+        private long inbound;
+        private long outbound;
+        private long bytes;
+        private int players;
+        private long handlerNanos;
+        private long elapsedNanos;
+
+        @Override
+        public String toString() {
+            final long packets = inbound + outbound;
+            final double seconds = elapsedNanos / (double) TimeUnit.SECONDS.toNanos(1);
+            return String.format("Replayed %d packets (%d in, %d out, %d bytes) for %d players in %.2fs, "
+                            + "%.0f packets/s, %.0f ns per packet in handlers",
+                    packets, inbound, outbound, bytes, players, seconds,
+                    packets / Math.max(seconds, 1e-9), packets == 0 ? 0D : handlerNanos / (double) packets);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.lunarclient.bukkitapi.recorder;
+
+import lombok.Data;
+
+import java.util.UUID;
+
+/**
+ * A single encoded packet read back from a recording.
+ */
+@Data
+public final class LCRecordedPacket {
+
+    // Nanoseconds since the recorder was started, this carries on across rotated files.
+    private final long timestamp;
+    private final LCPacketDirection direction;
+    private final UUID player;
+    private final byte[] data;
+
+}
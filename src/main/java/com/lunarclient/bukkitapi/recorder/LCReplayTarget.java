@@ -0,0 +1,106 @@
+package com.lunarclient.bukkitapi.recorder;
+
+import com.lunarclient.bukkitapi.LCEncodedPacket;
+import com.lunarclient.bukkitapi.LunarClientAPI;
+import com.lunarclient.bukkitapi.nethandler.LCPacket;
+import com.lunarclient.bukkitapi.nethandler.server.LCNetHandlerServer;
+import org.bukkit.entity.Player;
+
+/**
+ * Receives the packets of a recording as it is replayed.
+ */
+public interface LCReplayTarget {
+
+    /**
+     * Called for a packet the client originally sent to the server.
+     *
+     * @param player The (stub) player that sent the packet.
+     * @param data   The encoded packet.
+     */
+    void inbound(Player player, byte[] data);
+
+    /**
+     * Called for a packet the server originally sent to the client.
+     *
+     * @param player The (stub) player that received the packet.
+     * @param data   The encoded packet.
+     */
+    void outbound(Player player, byte[] data);
+
+    /**
+     * Called for every player of a recording once the replay is over.
+     *
+     * @param player The (stub) player.
+     */
+    default void finished(Player player) {
+    }
+
+    /**
+     * A target that feeds the recording back into the API, as if it was live traffic.
+     * <p>
+     * Inbound packets go through {@link LunarClientAPI#handleIncomingPacket(Player, byte[])},
+     * so packet handlers, {@link com.lunarclient.bukkitapi.event.LCPacketReceivedEvent} and the net handler
+     * all see them. Outbound packets are sent with {@link LunarClientAPI#sendPacket(Player, LCEncodedPacket)},
+     * with the same bytes that were recorded, and fire {@link com.lunarclient.bukkitapi.event.LCPacketSentEvent}.
+     * Stub players are registered the first time a packet is sent to them, and unregistered when the replay is over.
+     * Don't replay into an API that is recording to the same directory.
+     *
+     * @param lunarClientAPI The API to feed the recording into.
+     * @return The new replay target.
+     */
+    static LCReplayTarget api(LunarClientAPI lunarClientAPI) {
+        return new LCReplayTarget() {
+            @Override
+            public void inbound(Player player, byte[] data) {
+                lunarClientAPI.handleIncomingPacket(player, data);
+            }
+
+            @Override
+            public void outbound(Player player, byte[] data) {
+                final LCPacket packet = LCPacket.handle(data, player);
+                if (packet == null) {
+                    return;
+                }
+                if (!lunarClientAPI.isRunningLunarClient(player)) {
+                    lunarClientAPI.registerPlayer(player);
+                }
+                lunarClientAPI.sendPacket(player, new LCEncodedPacket(packet, data));
+            }
+
+            @Override
+            public void finished(Player player) {
+                lunarClientAPI.unregisterPlayer(player, true);
+            }
+        };
+    }
+
+    /**
+     * A target that runs the decode and encode work the API does for live traffic, without a server.
+     * <p>
+     * Inbound packets are decoded and processed by the net handler only, packet handlers and events
+     * are skipped, use {@link #api(LunarClientAPI)} to replay into a running server.
+     * Outbound packets are decoded and encoded again.
+     *
+     * @param netHandler The handler inbound packets are processed by.
+     * @return The new replay target.
+     */
+    static LCReplayTarget decoding(LCNetHandlerServer netHandler) {
+        return new LCReplayTarget() {
+            @Override
+            public void inbound(Player player, byte[] data) {
+                final LCPacket packet = LCPacket.handle(data, player);
+                if (packet != null) {
+                    packet.process(netHandler);
+                }
+            }
+
+            @Override
+            public void outbound(Player player, byte[] data) {
+                final LCPacket packet = LCPacket.handle(data, player);
+                if (packet != null) {
+                    LCPacket.getPacketData(packet);
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,80 @@
+package com.lunarclient.bukkitapi.recorder;
+
+import com.lunarclient.bukkitapi.LunarClientAPI;
+import lombok.experimental.UtilityClass;
+import org.bukkit.entity.Player;
+
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.UUID;
+
+/**
+ * Creates stand-in {@link Player}s for running recorded traffic without a server.
+ * <p>
+ * A stub only knows its unique id and name and claims to listen on the
+ * Lunar Client channel. Plugin messages sent to it are dropped, and every other
+ * method returns null, zero or false.
+ */
+@UtilityClass
+public class LCStubPlayer {
+
+    /**
+     * Create a stub player.
+     *
+     * @param uuid The unique id of the recorded player.
+     * @return A {@link Player} that can be passed to the API and packet handlers.
+     */
+    public Player create(UUID uuid) {
+        final String name = "stub-" + uuid.toString().substring(0, 8);
+
+        return (Player) Proxy.newProxyInstance(LCStubPlayer.class.getClassLoader(), new Class<?>[]{Player.class}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getUniqueId":
+                    return uuid;
+                case "getName":
+                case "getDisplayName":
+                case "toString":
+                    return name;
+                case "isOnline":
+                case "isValid":
+                    return true;
+                case "getListeningPluginChannels":
+                    return Collections.singleton(LunarClientAPI.MESSAGE_CHANNEL);
+                case "hashCode":
+                    return uuid.hashCode();
+                case "equals":
+                    return proxy == args[0];
+                default:
+                    return defaultValue(method.getReturnType());
+            }
+        });
+    }
+
+    private Object defaultValue(Class<?> type) {
+        if (!type.isPrimitive() || type == void.class) {
+            return null;
+        }
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == char.class) {
+            return '\0';
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        if (type == float.class) {
+            return 0F;
+        }
+        if (type == double.class) {
+            return 0D;
+        }
+        if (type == byte.class) {
+            return (byte) 0;
+        }
+        if (type == short.class) {
+            return (short) 0;
+        }
+        return 0;
+    }
+}
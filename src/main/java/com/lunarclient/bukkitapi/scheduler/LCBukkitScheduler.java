@@ -0,0 +1,66 @@
+package com.lunarclient.bukkitapi.scheduler;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+/**
+ * A {@link LCScheduler} for servers with a single main thread.
+ */
+final class LCBukkitScheduler implements LCScheduler {
+
+    @Override
+    public boolean isOwnedByCurrentThread(Player player) {
+        return Bukkit.isPrimaryThread();
+    }
+
+    @Override
+    public boolean isOwnedByCurrentThread(Entity entity) {
+        return Bukkit.isPrimaryThread();
+    }
+
+    @Override
+    public void run(Plugin plugin, Entity entity, Runnable task) {
+        Bukkit.getScheduler().runTask(plugin, () -> {
+            if (entity.isValid()) {
+                task.run();
+            }
+        });
+    }
+
+    @Override
+    public void run(Plugin plugin, Player player, Runnable task) {
+        Bukkit.getScheduler().runTask(plugin, () -> {
+            if (player.isOnline()) {
+                task.run();
+            }
+        });
+    }
+
+    @Override
+    public void runLater(Plugin plugin, Player player, Runnable task, long delayTicks) {
+        Bukkit.getScheduler().runTaskLater(plugin, () -> {
+            if (player.isOnline()) {
+                task.run();
+            }
+        }, delayTicks);
+    }
+
+    @Override
+    public void runLater(Plugin plugin, Runnable task, long delayTicks) {
+        Bukkit.getScheduler().runTaskLater(plugin, task, delayTicks);
+    }
+
+    @Override
+    public LCScheduledTask runTimer(Plugin plugin, Runnable task, long delayTicks, long periodTicks) {
+        final BukkitTask scheduled = Bukkit.getScheduler().runTaskTimer(plugin, task, delayTicks, periodTicks);
+        return scheduled::cancel;
+    }
+
+    @Override
+    public void runAsync(Plugin plugin, Runnable task) {
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, task);
+    }
+}
@@ -0,0 +1,109 @@
+package com.lunarclient.bukkitapi.scheduler;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.function.Consumer;
+
+/**
+ * A {@link LCScheduler} for region threaded servers, using the entity, global region
+ * and async schedulers they provide instead of the Bukkit scheduler.
+ * <p>
+ * Those schedulers aren't part of the Bukkit API this plugin is compiled against,
+ * so they are looked up once by reflection.
+ */
+final class LCRegionScheduler implements LCScheduler {
+
+    private final Method isOwnedByCurrentRegion;
+    private final Method getEntityScheduler;
+    private final Method entityRun;
+    private final Method entityRunDelayed;
+    private final Object globalScheduler;
+    private final Method globalRunDelayed;
+    private final Method globalRunAtFixedRate;
+    private final Method cancel;
+    private final Object asyncScheduler;
+    private final Method asyncRunNow;
+
+    LCRegionScheduler() throws ReflectiveOperationException {
+        final String schedulerPackage = "io.papermc.paper.threadedregions.scheduler.";
+        final Class<?> entityScheduler = Class.forName(schedulerPackage + "EntityScheduler");
+        final Class<?> globalRegionScheduler = Class.forName(schedulerPackage + "GlobalRegionScheduler");
+        final Class<?> asyncSchedulerClass = Class.forName(schedulerPackage + "AsyncScheduler");
+
+        this.isOwnedByCurrentRegion = Bukkit.class.getMethod("isOwnedByCurrentRegion", Entity.class);
+        this.getEntityScheduler = Entity.class.getMethod("getScheduler");
+        this.entityRun = entityScheduler.getMethod("run", Plugin.class, Consumer.class, Runnable.class);
+        this.entityRunDelayed = entityScheduler.getMethod("runDelayed", Plugin.class, Consumer.class, Runnable.class, long.class);
+        this.globalScheduler = Bukkit.class.getMethod("getGlobalRegionScheduler").invoke(null);
+        this.globalRunDelayed = globalRegionScheduler.getMethod("runDelayed", Plugin.class, Consumer.class, long.class);
+        this.globalRunAtFixedRate = globalRegionScheduler.getMethod("runAtFixedRate", Plugin.class, Consumer.class, long.class, long.class);
+        this.cancel = Class.forName(schedulerPackage + "ScheduledTask").getMethod("cancel");
+        this.asyncScheduler = Bukkit.class.getMethod("getAsyncScheduler").invoke(null);
+        this.asyncRunNow = asyncSchedulerClass.getMethod("runNow", Plugin.class, Consumer.class);
+    }
+
+    @Override
+    public boolean isOwnedByCurrentThread(Player player) {
+        return (Boolean) this.invoke(isOwnedByCurrentRegion, null, player);
+    }
+
+    @Override
+    public boolean isOwnedByCurrentThread(Entity entity) {
+        return (Boolean) this.invoke(isOwnedByCurrentRegion, null, entity);
+    }
+
+    @Override
+    public void run(Plugin plugin, Entity entity, Runnable task) {
+        this.invoke(entityRun, this.invoke(getEntityScheduler, entity), plugin, toConsumer(task), null);
+    }
+
+    @Override
+    public void run(Plugin plugin, Player player, Runnable task) {
+        // The retired callback is null, the task is simply dropped if the player leaves.
+        this.invoke(entityRun, this.invoke(getEntityScheduler, player), plugin, toConsumer(task), null);
+    }
+
+    @Override
+    public void runLater(Plugin plugin, Player player, Runnable task, long delayTicks) {
+        this.invoke(entityRunDelayed, this.invoke(getEntityScheduler, player), plugin, toConsumer(task), null, Math.max(1L, delayTicks));
+    }
+
+    @Override
+    public void runLater(Plugin plugin, Runnable task, long delayTicks) {
+        this.invoke(globalRunDelayed, globalScheduler, plugin, toConsumer(task), Math.max(1L, delayTicks));
+    }
+
+    @Override
+    public LCScheduledTask runTimer(Plugin plugin, Runnable task, long delayTicks, long periodTicks) {
+        final Object scheduled = this.invoke(globalRunAtFixedRate, globalScheduler, plugin, toConsumer(task), Math.max(1L, delayTicks), Math.max(1L, periodTicks));
+        return () -> this.invoke(cancel, scheduled);
+    }
+
+    @Override
+    public void runAsync(Plugin plugin, Runnable task) {
+        this.invoke(asyncRunNow, asyncScheduler, plugin, toConsumer(task));
+    }
+
+    private static Consumer<Object> toConsumer(Runnable task) {
+        return scheduledTask -> task.run();
+    }
+
+    private Object invoke(Method method, Object target, Object... arguments) {
+        try {
+            return method.invoke(target, arguments);
+        } catch (InvocationTargetException ex) {
+            final Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException("Could not call " + method.getName(), cause);
+        } catch (IllegalAccessException ex) {
+            throw new IllegalStateException("Could not call " + method.getName(), ex);
+        }
+    }
+}
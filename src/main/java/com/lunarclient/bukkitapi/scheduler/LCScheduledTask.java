@@ -0,0 +1,14 @@
+package com.lunarclient.bukkitapi.scheduler;
+
+/**
+ * A repeating task scheduled through a {@link LCScheduler}.
+ */
+@FunctionalInterface
+public interface LCScheduledTask {
+
+    /**
+     * Stop the task from running again.
+     */
+    void cancel();
+
+}
@@ -0,0 +1,111 @@
+package com.lunarclient.bukkitapi.scheduler;
+
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+
+/**
+ * Schedules the tasks of the API on the right thread, both on servers with a single
+ * main thread and on region threaded servers (like Folia) where every region of the
+ * world ticks on a thread of its own and the Bukkit scheduler isn't available.
+ * <p>
+ * Tasks for a player run on the thread that owns the player, which is simply the main
+ * thread on a normal server. Tasks that aren't tied to a player run on the global region.
+ */
+public interface LCScheduler {
+
+    /**
+     * Pick the scheduler for the running server.
+     *
+     * @return A scheduler using the region schedulers if the server is region threaded, otherwise the Bukkit scheduler.
+     */
+    static LCScheduler create() {
+        try {
+            Class.forName("io.papermc.paper.threadedregions.RegionizedServer");
+        } catch (ClassNotFoundException ex) {
+            return new LCBukkitScheduler();
+        }
+        try {
+            return new LCRegionScheduler();
+        } catch (ReflectiveOperationException ex) {
+            throw new IllegalStateException("Server is region threaded, but its schedulers could not be found", ex);
+        }
+    }
+
+    /**
+     * Checks if the current thread may touch a player.
+     *
+     * @param player The player.
+     * @return {@link Boolean} value of weather the current thread owns the player.
+     */
+    boolean isOwnedByCurrentThread(Player player);
+
+    /**
+     * Checks if the current thread may touch an entity.
+     *
+     * @param entity The entity.
+     * @return {@link Boolean} value of weather the current thread owns the entity.
+     */
+    boolean isOwnedByCurrentThread(Entity entity);
+
+    /**
+     * Run a task on the thread that owns a player, on the next tick.
+     * The task doesn't run if the player leaves first.
+     *
+     * @param plugin The plugin that owns the task.
+     * @param player The player the task is for.
+     * @param task   The task.
+     */
+    void run(Plugin plugin, Player player, Runnable task);
+
+    /**
+     * Run a task on the thread that owns an entity, on the next tick.
+     * The task doesn't run if the entity is removed first.
+     *
+     * @param plugin The plugin that owns the task.
+     * @param entity The entity the task is for.
+     * @param task   The task.
+     */
+    void run(Plugin plugin, Entity entity, Runnable task);
+
+    /**
+     * Run a task on the thread that owns a player, after a delay.
+     * The task doesn't run if the player leaves first.
+     *
+     * @param plugin     The plugin that owns the task.
+     * @param player     The player the task is for.
+     * @param task       The task.
+     * @param delayTicks The delay in ticks, at least 1.
+     */
+    void runLater(Plugin plugin, Player player, Runnable task, long delayTicks);
+
+    /**
+     * Run a task that isn't tied to any player once, after a delay.
+     *
+     * @param plugin     The plugin that owns the task.
+     * @param task       The task.
+     * @param delayTicks The delay in ticks, at least 1.
+     */
+    void runLater(Plugin plugin, Runnable task, long delayTicks);
+
+    /**
+     * Run a task that isn't tied to any player repeatedly.
+     * The task must be thread safe, as it may not run on the thread that owns the players it touches.
+     *
+     * @param plugin      The plugin that owns the task.
+     * @param task        The task.
+     * @param delayTicks  The delay before the first run in ticks, at least 1.
+     * @param periodTicks The ticks between runs, at least 1.
+     * @return The task, to cancel it.
+     */
+    LCScheduledTask runTimer(Plugin plugin, Runnable task, long delayTicks, long periodTicks);
+
+    /**
+     * Run a task off the server threads.
+     *
+     * @param plugin The plugin that owns the task.
+     * @param task   The task.
+     */
+    void runAsync(Plugin plugin, Runnable task);
+
+}
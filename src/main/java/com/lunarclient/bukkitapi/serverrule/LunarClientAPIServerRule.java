@@ -1,20 +1,27 @@
 package com.lunarclient.bukkitapi.serverrule;
 
+import com.google.common.base.Preconditions;
+import com.lunarclient.bukkitapi.LCEncodedPacket;
 import com.lunarclient.bukkitapi.LunarClientAPI;
+import com.lunarclient.bukkitapi.audience.LCAudience;
 import com.lunarclient.bukkitapi.nethandler.client.LCPacketServerRule;
 import com.lunarclient.bukkitapi.nethandler.client.obj.ServerRule;
 import lombok.experimental.UtilityClass;
 import org.bukkit.entity.Player;
 
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @UtilityClass
 public class LunarClientAPIServerRule {
 
     // The reason this is a Map is so that hopefully we will only have 1 server rule packet
     // per ServerRule. It would be extremely weird behavior if multiple with the same type were sent.
-    private final Map<ServerRule, LCPacketServerRule> customServerRules = new HashMap<>();
+    // Packets are kept encoded, as the same rules are sent to every player that joins.
+    private final Map<ServerRule, LCEncodedPacket> customServerRules = new ConcurrentHashMap<>();
 
     /**
      * Set a server rule to a boolean value.
@@ -25,7 +32,46 @@ public class LunarClientAPIServerRule {
      * @param value The value of the ServerRule.
      */
     public void setRule(ServerRule rule, Boolean value) {
-        customServerRules.put(rule, new LCPacketServerRule(rule, value));
+        customServerRules.put(rule, new LCEncodedPacket(new LCPacketServerRule(rule, value)));
+    }
+
+    /**
+     * Set a server rule from a packet that was already encoded.
+     *
+     * @param packet The encoded {@link LCPacketServerRule}.
+     */
+    public void setRule(LCEncodedPacket packet) {
+        Preconditions.checkArgument(packet.getPacket() instanceof LCPacketServerRule, "Packet must be a server rule.");
+        customServerRules.put(((LCPacketServerRule) packet.getPacket()).getRule(), packet);
+    }
+
+    /**
+     * Stop setting a server rule. Players that were already sent it need to be updated.
+     *
+     * @param rule The ServerRule to remove.
+     */
+    public void removeRule(ServerRule rule) {
+        customServerRules.remove(rule);
+    }
+
+    /**
+     * Stop setting a server rule, only if it is still set to a packet.
+     *
+     * @param packet The encoded {@link LCPacketServerRule} that may have been replaced since.
+     * @return {@link Boolean} value of weather the rule was still set to the packet and was removed.
+     */
+    public boolean removeRule(LCEncodedPacket packet) {
+        Preconditions.checkArgument(packet.getPacket() instanceof LCPacketServerRule, "Packet must be a server rule.");
+        return customServerRules.remove(((LCPacketServerRule) packet.getPacket()).getRule(), packet);
+    }
+
+    /**
+     * Get every server rule that is currently set.
+     *
+     * @return An unmodifiable view of the encoded {@link LCPacketServerRule} packets.
+     */
+    public Collection<LCEncodedPacket> getRules() {
+        return Collections.unmodifiableCollection(customServerRules.values());
     }
 
     /**
@@ -43,10 +89,22 @@ public class LunarClientAPIServerRule {
         if (customServerRules.isEmpty()) {
             return;
         }
+        final ArrayList<LCEncodedPacket> packets = new ArrayList<>(customServerRules.values());
         for (Player player : players) {
-            for (LCPacketServerRule value : customServerRules.values()) {
-                LunarClientAPI.getInstance().sendPacket(player, value);
-            }
+            LunarClientAPI.getInstance().sendEncodedPackets(player, packets);
+        }
+    }
+
+    /**
+     * Send all set server rules to every member of an audience.
+     *
+     * @param audience The audience to get all the previously set server rules.
+     * @see #sendServerRule(Player...)
+     */
+    public void sendServerRule(LCAudience audience) {
+        if (customServerRules.isEmpty()) {
+            return;
         }
+        audience.sendAll(new ArrayList<>(customServerRules.values()));
     }
 }
@@ -0,0 +1,282 @@
+package com.lunarclient.bukkitapi.snapshot;
+
+import com.lunarclient.bukkitapi.LCEncodedPacket;
+import com.lunarclient.bukkitapi.LunarClientAPI;
+import com.lunarclient.bukkitapi.cooldown.LCCooldown;
+import com.lunarclient.bukkitapi.cooldown.LunarClientAPICooldown;
+import com.lunarclient.bukkitapi.nethandler.LCPacket;
+import com.lunarclient.bukkitapi.nethandler.client.LCPacketCooldown;
+import com.lunarclient.bukkitapi.nethandler.client.LCPacketServerRule;
+import com.lunarclient.bukkitapi.nethandler.client.LCPacketUpdateWorld;
+import com.lunarclient.bukkitapi.nethandler.client.obj.ServerRule;
+import com.lunarclient.bukkitapi.serverrule.LunarClientAPIServerRule;
+import lombok.RequiredArgsConstructor;
+import org.bukkit.World;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * A binary snapshot of the state registered with the API, so a restarted server
+ * has its cooldowns and server rules (already encoded) before any plugin has enabled,
+ * and doesn't encode the update packets of its world identifiers again.
+ * <p>
+ * Restored cooldowns and server rules are kept until a plugin replaces them by registering
+ * the same cooldown or rule again, or removes them. A plugin that stopped setting some state
+ * can drop whatever nobody registered again with {@link #forgetUnclaimed()} once its own
+ * state is registered, and the snapshot can be turned off with {@code -Dlunarclient.snapshot=false}.
+ * World identifiers are only restored as encoded update packets, used once a plugin registers
+ * the same identifier again.
+ * <p>
+ * A snapshot written with a different file format, or by a protocol that encodes packets
+ * differently, is ignored as the encoded packets could be out of date. Delete the file to
+ * start from nothing.
+ * <p>
+ * File layout, every packet stored as [int length] [bytes] and every string as [short length] [UTF-8 bytes]:
+ * <pre>
+ * [int magic] [int version] [int encoding hash]
+ * [int count] ([string name] [long millis] [int item id] [packet])...      cooldowns
+ * [int count] ([string rule] [byte value] [packet])...                      server rules
+ * [int count] ([string identifier] [packet])...                             world identifiers
+ * </pre>
+ */
+@RequiredArgsConstructor
+public final class LCStateSnapshot {
+
+    public static final String ENABLED_PROPERTY = "lunarclient.snapshot";
+
+    private static final int MAGIC = 0x4C43534E; // "LCSN"
+    private static final int VERSION = 2;
+
+    private final LunarClientAPI lunarClientAPI;
+    private final File file;
+    // Restored by load, until forgetUnclaimed checks which were registered again.
+    private List<LCCooldown> restoredCooldowns = new ArrayList<>();
+    private List<LCEncodedPacket> restoredRules = new ArrayList<>();
+
+    /**
+     * Restore the state in the snapshot, if there is one.
+     *
+     * @return {@link Boolean} value of weather a snapshot was restored.
+     * @throws IOException If the snapshot exists but can't be read.
+     */
+    public boolean load() throws IOException {
+        if (!file.isFile()) {
+            return false;
+        }
+
+        // Everything is parsed before anything is restored, so a broken snapshot restores nothing.
+        final List<LCCooldown> cooldowns = new ArrayList<>();
+        final List<LCEncodedPacket> rules = new ArrayList<>();
+        final Map<String, byte[]> worlds = new HashMap<>();
+
+        MappedByteBuffer buffer = null;
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION || buffer.getInt() != encodingHash()) {
+                return false;
+            }
+
+            for (int i = buffer.getInt(); i > 0; i--) {
+                final String name = readString(buffer);
+                final long millis = buffer.getLong();
+                final int itemId = buffer.getInt();
+                cooldowns.add(new LCCooldown(name, millis, itemId, readBytes(buffer)));
+            }
+
+            for (int i = buffer.getInt(); i > 0; i--) {
+                final ServerRule rule = ServerRule.valueOf(readString(buffer));
+                final byte value = buffer.get();
+                final byte[] data = readBytes(buffer);
+                rules.add(new LCEncodedPacket(new LCPacketServerRule(rule, value == 2 ? null : value == 1), data));
+            }
+
+            for (int i = buffer.getInt(); i > 0; i--) {
+                final String identifier = readString(buffer);
+                worlds.put(identifier, readBytes(buffer));
+            }
+        } catch (BufferUnderflowException | IllegalArgumentException | IndexOutOfBoundsException ex) {
+            throw new IOException("Lunar Client snapshot " + file + " is corrupt", ex);
+        } finally {
+            // Everything was copied out of the mapping, don't keep the file mapped until the buffer is collected.
+            if (buffer != null) {
+                unmap(buffer);
+            }
+        }
+
+        cooldowns.forEach(LunarClientAPICooldown::registerCooldown);
+        rules.forEach(LunarClientAPIServerRule::setRule);
+        worlds.forEach(lunarClientAPI::restoreWorldUpdate);
+        this.restoredCooldowns = cooldowns;
+        this.restoredRules = rules;
+        return true;
+    }
+
+    /**
+     * Drop the restored cooldowns and server rules that no plugin registered again.
+     * Only call this once every plugin has registered its state, anything not registered
+     * by then no longer reaches players.
+     *
+     * @return The amount of cooldowns and server rules that were dropped.
+     */
+    public int forgetUnclaimed() {
+        int forgotten = 0;
+        for (LCCooldown restored : restoredCooldowns) {
+            // Plugins registering a cooldown again replace the restored instance.
+            for (LCCooldown registered : LunarClientAPICooldown.getRegisteredCooldowns()) {
+                if (registered == restored) {
+                    LunarClientAPICooldown.unregisterCooldown(restored);
+                    forgotten++;
+                    break;
+                }
+            }
+        }
+        for (LCEncodedPacket restored : restoredRules) {
+            if (LunarClientAPIServerRule.removeRule(restored)) {
+                forgotten++;
+            }
+        }
+
+        this.restoredCooldowns = new ArrayList<>();
+        this.restoredRules = new ArrayList<>();
+        return forgotten;
+    }
+
+    /**
+     * Write the current state to the snapshot, replacing the previous one.
+     *
+     * @throws IOException If the snapshot can't be written.
+     */
+    public void save() throws IOException {
+        final File temp = new File(file.getPath() + ".tmp");
+        final File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null) {
+            Files.createDirectories(parent.toPath());
+        }
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp.toPath())))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(encodingHash());
+
+            final List<LCCooldown> cooldowns = new ArrayList<>(LunarClientAPICooldown.getRegisteredCooldowns());
+            out.writeInt(cooldowns.size());
+            for (LCCooldown cooldown : cooldowns) {
+                writeString(out, cooldown.getName());
+                out.writeLong(cooldown.getMillis());
+                out.writeInt(cooldown.getItemId());
+                writeBytes(out, cooldown.getEncodedPacket().getData());
+            }
+
+            final List<LCEncodedPacket> rules = new ArrayList<>(LunarClientAPIServerRule.getRules());
+            out.writeInt(rules.size());
+            for (LCEncodedPacket packet : rules) {
+                final LCPacketServerRule rule = (LCPacketServerRule) packet.getPacket();
+                writeString(out, rule.getRule().name());
+                out.writeByte(rule.getValue() == null ? 2 : rule.getValue() ? 1 : 0);
+                writeBytes(out, packet.getData());
+            }
+
+            // Identifiers are functions, only what they currently return for loaded worlds can be kept.
+            final List<World> worlds = new ArrayList<>();
+            for (World world : lunarClientAPI.getServer().getWorlds()) {
+                if (lunarClientAPI.hasWorldIdentifier(world)) {
+                    worlds.add(world);
+                }
+            }
+            out.writeInt(worlds.size());
+            for (World world : worlds) {
+                final LCEncodedPacket update = lunarClientAPI.getWorldUpdate(world);
+                writeString(out, ((LCPacketUpdateWorld) update.getPacket()).getWorld());
+                writeBytes(out, update.getData());
+            }
+        }
+        Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Hash how the protocol encodes the kinds of packets in a snapshot, which changes
+     * when the protocol library changes their ids or layout.
+     *
+     * @return The hash of a sample of each kind of packet.
+     */
+    private static int encodingHash() {
+        final CRC32 crc = new CRC32();
+        crc.update(LCPacket.getPacketData(new LCPacketCooldown("snapshot", 1L, 1)));
+        crc.update(LCPacket.getPacketData(new LCPacketServerRule(ServerRule.values()[0], true)));
+        crc.update(LCPacket.getPacketData(new LCPacketUpdateWorld("snapshot")));
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Release a mapping right away instead of when the buffer is garbage collected,
+     * which on Windows also keeps the file from being replaced.
+     * If the JVM doesn't allow it the mapping is released once the buffer is collected.
+     */
+    private static void unmap(MappedByteBuffer buffer) {
+        try {
+            // Java 9 and later.
+            final Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            final Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+            final Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            invokeCleaner.invoke(theUnsafe.get(null), buffer);
+        } catch (NoSuchMethodException ex) {
+            // Java 8.
+            try {
+                final Method cleaner = buffer.getClass().getMethod("cleaner");
+                cleaner.setAccessible(true);
+                final Object instance = cleaner.invoke(buffer);
+                if (instance != null) {
+                    instance.getClass().getMethod("clean").invoke(instance);
+                }
+            } catch (ReflectiveOperationException | RuntimeException ignored) {
+            }
+        } catch (ReflectiveOperationException | RuntimeException ignored) {
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+
+    private static void writeBytes(DataOutputStream out, byte[] bytes) throws IOException {
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        final byte[] bytes = new byte[buffer.getShort() & 0xFFFF];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] readBytes(ByteBuffer buffer) {
+        final int length = buffer.getInt();
+        if (length < 0 || length > buffer.remaining()) {
+            throw new IllegalArgumentException("Invalid packet length " + length);
+        }
+        final byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,147 @@
+package com.lunarclient.bukkitapi.spectate;
+
+import com.lunarclient.bukkitapi.nethandler.LCPacket;
+import com.lunarclient.bukkitapi.nethandler.client.LCPacketCooldown;
+import com.lunarclient.bukkitapi.nethandler.client.LCPacketTeammates;
+import com.lunarclient.bukkitapi.nethandler.client.LCPacketTitle;
+import com.lunarclient.bukkitapi.nethandler.shared.LCPacketWaypointAdd;
+import com.lunarclient.bukkitapi.nethandler.shared.LCPacketWaypointRemove;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The cooldowns, waypoints, teammates and titles a player currently has on their HUD,
+ * as far as the packets sent to them tell. Not thread safe, callers lock on the state.
+ */
+final class LCHudState {
+
+    private final Map<String, Timed<LCPacketCooldown>> cooldowns = new LinkedHashMap<>();
+    private final Map<List<String>, LCPacketWaypointAdd> waypoints = new LinkedHashMap<>();
+    private final Map<String, Timed<LCPacketTitle>> titles = new LinkedHashMap<>();
+    private LCPacketTeammates teammates;
+    // When a packet was last applied, in milliseconds.
+    @Getter
+    private long lastAppliedAt;
+
+    /**
+     * Checks if a packet changes the HUD.
+     *
+     * @param packet The packet.
+     * @return {@link Boolean} value of weather the packet is a cooldown, title, waypoint or teammates packet.
+     */
+    static boolean isHudPacket(LCPacket packet) {
+        return packet instanceof LCPacketCooldown || packet instanceof LCPacketTitle || packet instanceof LCPacketTeammates
+                || packet instanceof LCPacketWaypointAdd || packet instanceof LCPacketWaypointRemove;
+    }
+
+    /**
+     * Update the state with a packet that was sent.
+     *
+     * @param packet The packet, packets that don't change the HUD are ignored.
+     * @param now    When the packet was sent, in milliseconds.
+     */
+    void apply(LCPacket packet, long now) {
+        this.lastAppliedAt = now;
+        if (packet instanceof LCPacketCooldown) {
+            final LCPacketCooldown cooldown = (LCPacketCooldown) packet;
+            if (cooldown.getDurationMs() > 0) {
+                this.cooldowns.put(cooldown.getMessage(), new Timed<>(cooldown, now));
+            } else {
+                this.cooldowns.remove(cooldown.getMessage());
+            }
+        } else if (packet instanceof LCPacketWaypointAdd) {
+            final LCPacketWaypointAdd waypoint = (LCPacketWaypointAdd) packet;
+            this.waypoints.put(Arrays.asList(waypoint.getName(), waypoint.getWorld()), waypoint);
+        } else if (packet instanceof LCPacketWaypointRemove) {
+            final LCPacketWaypointRemove waypoint = (LCPacketWaypointRemove) packet;
+            this.waypoints.remove(Arrays.asList(waypoint.getName(), waypoint.getWorld()));
+        } else if (packet instanceof LCPacketTeammates) {
+            final LCPacketTeammates teammates = (LCPacketTeammates) packet;
+            this.teammates = teammates.getPlayers().isEmpty() ? null : teammates;
+        } else if (packet instanceof LCPacketTitle) {
+            final LCPacketTitle title = (LCPacketTitle) packet;
+            this.titles.put(title.getType(), new Timed<>(title, now));
+        }
+    }
+
+    /**
+     * Get the packets that bring a HUD with nothing on it to this state.
+     * Cooldowns and titles are shortened by the time since they were sent,
+     * the ones that already ended are forgotten.
+     *
+     * @param now The current time in milliseconds.
+     * @return The packets, in the order they should be sent.
+     */
+    List<LCPacket> sync(long now) {
+        final List<LCPacket> packets = new ArrayList<>(cooldowns.size() + waypoints.size() + titles.size() + 1);
+        final Iterator<Timed<LCPacketCooldown>> cooldowns = this.cooldowns.values().iterator();
+        while (cooldowns.hasNext()) {
+            final Timed<LCPacketCooldown> timed = cooldowns.next();
+            final long remaining = timed.packet.getDurationMs() - (now - timed.sentAt);
+            if (remaining <= 0) {
+                cooldowns.remove();
+                continue;
+            }
+            packets.add(new LCPacketCooldown(timed.packet.getMessage(), remaining, timed.packet.getIconId()));
+        }
+
+        packets.addAll(waypoints.values());
+        if (teammates != null) {
+            packets.add(teammates);
+        }
+
+        final Iterator<Timed<LCPacketTitle>> titles = this.titles.values().iterator();
+        while (titles.hasNext()) {
+            final Timed<LCPacketTitle> timed = titles.next();
+            final LCPacketTitle title = timed.packet;
+            // Titles that are fading out are not worth showing again.
+            final long remaining = title.getFadeInTimeMs() + title.getDisplayTimeMs() - (now - timed.sentAt);
+            if (remaining <= 0) {
+                titles.remove();
+                continue;
+            }
+            packets.add(new LCPacketTitle(title.getType(), title.getMessage(), title.getScale(), remaining, 0L, title.getFadeOutTimeMs()));
+        }
+        return packets;
+    }
+
+    /**
+     * Get the packets that take everything in this state off the HUD, and forget it.
+     * Titles can't be taken off and run out on their own.
+     *
+     * @return The packets, in the order they should be sent.
+     */
+    List<LCPacket> clear() {
+        final List<LCPacket> packets = new ArrayList<>(cooldowns.size() + waypoints.size() + 1);
+        for (Timed<LCPacketCooldown> timed : cooldowns.values()) {
+            packets.add(new LCPacketCooldown(timed.packet.getMessage(), 0L, timed.packet.getIconId()));
+        }
+        for (LCPacketWaypointAdd waypoint : waypoints.values()) {
+            packets.add(new LCPacketWaypointRemove(waypoint.getName(), waypoint.getWorld()));
+        }
+        if (teammates != null) {
+            packets.add(new LCPacketTeammates(teammates.getLeader(), System.currentTimeMillis(), Collections.emptyMap()));
+        }
+
+        this.cooldowns.clear();
+        this.waypoints.clear();
+        this.titles.clear();
+        this.teammates = null;
+        return packets;
+    }
+
+    @RequiredArgsConstructor
+    private static final class Timed<T extends LCPacket> {
+
+        private final T packet;
+        private final long sentAt;
+    }
+}
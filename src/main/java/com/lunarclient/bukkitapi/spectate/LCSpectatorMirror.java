@@ -0,0 +1,344 @@
+package com.lunarclient.bukkitapi.spectate;
+
+import com.google.common.base.Preconditions;
+import com.lunarclient.bukkitapi.LCEncodedPacket;
+import com.lunarclient.bukkitapi.LunarClientAPI;
+import com.lunarclient.bukkitapi.nethandler.LCPacket;
+import io.netty.buffer.ByteBuf;
+import lombok.Getter;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shows spectators the HUD of the player they are watching: every cooldown, title, waypoint
+ * and teammates packet sent to the subject is sent to their spectators as well.
+ * <p>
+ * A packet is copied once for all spectators of a subject, which then receive the same bytes.
+ * The copies are buffered for each spectator and sent together once a tick. When a buffer
+ * fills up (a subject with a lot of updates, a spectator that can't keep up) it is dropped,
+ * and the spectator is sent the current state of the subject instead.
+ * <p>
+ * When a spectator starts watching a subject, what they were shown of their last subject is
+ * taken off their HUD and the current cooldowns, waypoints, teammates and titles of the new
+ * subject are sent to them. Packets sent to a player while they are spectating are not
+ * mirrored to anyone, so spectators can watch each other without packets going in circles.
+ * <p>
+ * The HUD of players is only followed while the server has spectators, and for a few minutes
+ * after the last one stopped, so a server that doesn't use spectators pays next to nothing on
+ * sends. Players nobody watched for that long are forgotten as well, a spectator that starts
+ * watching them is only shown what is sent to them from then on.
+ */
+public final class LCSpectatorMirror implements Runnable {
+
+    // How long the HUD of players is followed after they, or the whole server, were last spectated.
+    private static final long IDLE_MILLIS = TimeUnit.MINUTES.toMillis(5);
+    private static final int PRUNE_INTERVAL_TICKS = 20 * 60;
+
+    private final LunarClientAPI lunarClientAPI;
+    // What is on the HUD of players that have been sent HUD packets while spectators were around.
+    private final Map<UUID, LCHudState> states = new ConcurrentHashMap<>();
+    private final Map<UUID, Spectator> spectators = new ConcurrentHashMap<>();
+    private final Map<UUID, List<Spectator>> spectatorsBySubject = new ConcurrentHashMap<>();
+    @Getter
+    private volatile int bufferCapacity = 64;
+    private volatile long lastSpectatedAt;
+    private int ticks;
+
+    public LCSpectatorMirror(LunarClientAPI lunarClientAPI) {
+        this.lunarClientAPI = lunarClientAPI;
+    }
+
+    /**
+     * Set how many packets are buffered for each spectator between ticks,
+     * before the spectator is sent the current state of their subject instead.
+     *
+     * @param bufferCapacity The amount of packets.
+     */
+    public void setBufferCapacity(int bufferCapacity) {
+        Preconditions.checkArgument(bufferCapacity > 0, "Buffer capacity must be at least 1.");
+        this.bufferCapacity = bufferCapacity;
+    }
+
+    /**
+     * Start mirroring the HUD of a player to a spectator, replacing the player they were watching.
+     *
+     * @param spectator The player watching.
+     * @param subject   The player being watched.
+     */
+    public void spectate(Player spectator, Player subject) {
+        Preconditions.checkArgument(!spectator.getUniqueId().equals(subject.getUniqueId()), "A player can't spectate themselves.");
+        final Spectator watching = this.spectators.computeIfAbsent(spectator.getUniqueId(), id -> new Spectator(spectator));
+        this.lastSpectatedAt = System.currentTimeMillis();
+        synchronized (watching) {
+            if (subject.getUniqueId().equals(watching.subject)) {
+                return;
+            }
+            this.detach(watching);
+            watching.subject = subject.getUniqueId();
+            watching.buffer.clear();
+            watching.resync = true;
+            this.spectatorsBySubject.computeIfAbsent(watching.subject, id -> new CopyOnWriteArrayList<>()).add(watching);
+        }
+    }
+
+    /**
+     * Stop mirroring to a spectator, and take what they were shown off their HUD.
+     *
+     * @param spectator The player that stopped watching.
+     */
+    public void stopSpectating(Player spectator) {
+        final Spectator watching = this.spectators.remove(spectator.getUniqueId());
+        if (watching == null) {
+            return;
+        }
+
+        final List<LCPacket> clear;
+        synchronized (watching) {
+            this.detach(watching);
+            watching.buffer.clear();
+            clear = watching.shown.clear();
+        }
+        if (!clear.isEmpty()) {
+            this.lunarClientAPI.sendEncodedPackets(spectator, encode(clear));
+        }
+    }
+
+    /**
+     * Get the player a spectator is watching.
+     *
+     * @param spectator The spectator.
+     * @return The {@link UUID} of the subject, or null if the player isn't spectating.
+     */
+    public UUID getSubject(Player spectator) {
+        final Spectator watching = this.spectators.get(spectator.getUniqueId());
+        return watching == null ? null : watching.subject;
+    }
+
+    /**
+     * Get the spectators watching a player.
+     *
+     * @param subject The player being watched.
+     * @return The spectators.
+     */
+    public List<Player> getSpectators(Player subject) {
+        final List<Spectator> watching = this.spectatorsBySubject.get(subject.getUniqueId());
+        if (watching == null || watching.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        final List<Player> players = new ArrayList<>(watching.size());
+        for (Spectator spectator : watching) {
+            players.add(spectator.player);
+        }
+        return players;
+    }
+
+    /**
+     * Mirror a packet that is being sent to a player.
+     *
+     * @param player The player receiving the packet.
+     * @param packet The packet.
+     * @param data   The encoded packet, it is only read, and only if the player has spectators.
+     */
+    public void sent(Player player, LCPacket packet, ByteBuf data) {
+        final List<Spectator> watching = this.track(player, packet);
+        if (watching != null) {
+            final byte[] bytes = new byte[data.readableBytes()];
+            data.getBytes(data.readerIndex(), bytes);
+            this.offer(watching, new LCEncodedPacket(packet, bytes));
+        }
+    }
+
+    /**
+     * Mirror an encoded packet that is being sent to a player.
+     *
+     * @param player The player receiving the packet.
+     * @param packet The encoded packet.
+     */
+    public void sent(Player player, LCEncodedPacket packet) {
+        final List<Spectator> watching = this.track(player, packet.getPacket());
+        if (watching != null) {
+            this.offer(watching, packet);
+        }
+    }
+
+    /**
+     * Forget a player, as a spectator and as a subject. Their spectators stop spectating.
+     *
+     * @param player The player that quit.
+     */
+    public void clear(Player player) {
+        this.states.remove(player.getUniqueId());
+        final Spectator watching = this.spectators.remove(player.getUniqueId());
+        if (watching != null) {
+            synchronized (watching) {
+                this.detach(watching);
+            }
+        }
+
+        final List<Spectator> spectators = this.spectatorsBySubject.remove(player.getUniqueId());
+        if (spectators != null) {
+            for (Spectator spectator : spectators) {
+                this.stopSpectating(spectator.player);
+            }
+        }
+    }
+
+    @Override
+    public void run() {
+        if (++ticks % PRUNE_INTERVAL_TICKS == 0 && !states.isEmpty()) {
+            this.prune(System.currentTimeMillis());
+        }
+        if (spectators.isEmpty()) {
+            return;
+        }
+
+        final long now = System.currentTimeMillis();
+        this.lastSpectatedAt = now;
+        for (Spectator spectator : spectators.values()) {
+            final List<LCEncodedPacket> packets;
+            synchronized (spectator) {
+                if (spectator.resync) {
+                    packets = this.resync(spectator, now);
+                } else if (!spectator.buffer.isEmpty()) {
+                    packets = new ArrayList<>(spectator.buffer);
+                    spectator.buffer.clear();
+                } else {
+                    continue;
+                }
+            }
+            if (!packets.isEmpty()) {
+                this.lunarClientAPI.sendEncodedPackets(spectator.player, packets);
+            }
+        }
+    }
+
+    /**
+     * Update the HUD state of a player with a packet sent to them.
+     *
+     * @return The spectators to mirror the packet to, or null if there are none.
+     */
+    private List<Spectator> track(Player player, LCPacket packet) {
+        // Nothing is followed while nobody is, or recently was, spectating.
+        if (spectators.isEmpty() && states.isEmpty()) {
+            return null;
+        }
+        if (!LCHudState.isHudPacket(packet) || spectators.containsKey(player.getUniqueId())) {
+            return null;
+        }
+
+        final LCHudState state = this.states.computeIfAbsent(player.getUniqueId(), id -> new LCHudState());
+        synchronized (state) {
+            state.apply(packet, System.currentTimeMillis());
+        }
+        final List<Spectator> watching = this.spectatorsBySubject.get(player.getUniqueId());
+        return watching == null || watching.isEmpty() ? null : watching;
+    }
+
+    /**
+     * Forget the HUD of every player once the server had no spectators for a while,
+     * and otherwise of the players that aren't watched and weren't sent anything for a while.
+     */
+    private void prune(long now) {
+        if (spectators.isEmpty() && now - lastSpectatedAt > IDLE_MILLIS) {
+            this.states.clear();
+            return;
+        }
+
+        this.states.entrySet().removeIf(entry -> {
+            final List<Spectator> watching = this.spectatorsBySubject.get(entry.getKey());
+            if (watching != null && !watching.isEmpty()) {
+                return false;
+            }
+            synchronized (entry.getValue()) {
+                return now - entry.getValue().getLastAppliedAt() > IDLE_MILLIS;
+            }
+        });
+    }
+
+    private void offer(List<Spectator> watching, LCEncodedPacket packet) {
+        final int capacity = this.bufferCapacity;
+        for (Spectator spectator : watching) {
+            synchronized (spectator) {
+                if (spectator.resync) {
+                    continue;
+                }
+                if (spectator.buffer.size() >= capacity) {
+                    spectator.buffer.clear();
+                    spectator.resync = true;
+                    continue;
+                }
+                spectator.buffer.add(packet);
+                spectator.shown.apply(packet.getPacket(), System.currentTimeMillis());
+            }
+        }
+    }
+
+    /**
+     * Replace whatever a spectator was shown with the current state of their subject.
+     * Called while holding the lock of the spectator.
+     */
+    private List<LCEncodedPacket> resync(Spectator spectator, long now) {
+        spectator.resync = false;
+        final List<LCPacket> packets = spectator.shown.clear();
+        final LCHudState state = spectator.subject == null ? null : this.states.get(spectator.subject);
+        if (state != null) {
+            final List<LCPacket> sync;
+            synchronized (state) {
+                sync = state.sync(now);
+            }
+            for (LCPacket packet : sync) {
+                spectator.shown.apply(packet, now);
+            }
+            packets.addAll(sync);
+        }
+        return encode(packets);
+    }
+
+    /**
+     * Stop a spectator from receiving the packets of their subject.
+     * Called while holding the lock of the spectator.
+     */
+    private void detach(Spectator spectator) {
+        if (spectator.subject == null) {
+            return;
+        }
+
+        final List<Spectator> watching = this.spectatorsBySubject.get(spectator.subject);
+        if (watching != null) {
+            watching.remove(spectator);
+        }
+        spectator.subject = null;
+    }
+
+    private static List<LCEncodedPacket> encode(List<LCPacket> packets) {
+        final List<LCEncodedPacket> encoded = new ArrayList<>(packets.size());
+        for (LCPacket packet : packets) {
+            encoded.add(new LCEncodedPacket(packet));
+        }
+        return encoded;
+    }
+
+    private static final class Spectator {
+
+        private final Player player;
+        private final ArrayDeque<LCEncodedPacket> buffer = new ArrayDeque<>();
+        // What the spectator was shown of their subject, taken off again when they switch.
+        private final LCHudState shown = new LCHudState();
+        private UUID subject;
+        private boolean resync;
+
+        private Spectator(Player player) {
+            this.player = player;
+        }
+    }
+}
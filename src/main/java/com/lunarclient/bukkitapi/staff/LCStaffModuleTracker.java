@@ -0,0 +1,133 @@
+package com.lunarclient.bukkitapi.staff;
+
+import com.lunarclient.bukkitapi.object.StaffModule;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers which {@link StaffModule}s each player has enabled.
+ * <p>
+ * The state of a player is stored as a bitmask with one bit per module (by ordinal),
+ * so comparing an old and new state tells us exactly which modules need a packet.
+ * A set of players is also kept per module, for cheap "who has XRAY" lookups.
+ */
+public final class LCStaffModuleTracker {
+
+    private static final StaffModule[] MODULES = StaffModule.values();
+    public static final int ALL_MODULES = (1 << MODULES.length) - 1;
+
+    private final Map<UUID, Integer> states = new ConcurrentHashMap<>();
+    private final Map<StaffModule, Set<UUID>> enabledPlayers = new EnumMap<>(StaffModule.class);
+
+    public LCStaffModuleTracker() {
+        for (StaffModule module : MODULES) {
+            enabledPlayers.put(module, Collections.newSetFromMap(new ConcurrentHashMap<>()));
+        }
+    }
+
+    /**
+     * Get the bit used for a module in a state.
+     *
+     * @param module The staff module.
+     * @return The bit representing the module.
+     */
+    public static int bit(StaffModule module) {
+        return 1 << module.ordinal();
+    }
+
+    /**
+     * Convert the names of staff modules, as sent by the client, to a state.
+     * Names that don't match a known {@link StaffModule} are ignored.
+     *
+     * @param names The names of the enabled modules.
+     * @return The state with those modules enabled.
+     */
+    public static int fromNames(Collection<String> names) {
+        int state = 0;
+        for (StaffModule module : MODULES) {
+            for (String name : names) {
+                if (module.name().equalsIgnoreCase(name)) {
+                    state |= bit(module);
+                    break;
+                }
+            }
+        }
+        return state;
+    }
+
+    /**
+     * Get the modules a player has enabled.
+     *
+     * @param player The unique id of the player.
+     * @return The state of the player, 0 if nothing is enabled.
+     */
+    public int getState(UUID player) {
+        return states.getOrDefault(player, 0);
+    }
+
+    /**
+     * Checks if a player has a module enabled.
+     *
+     * @param player The unique id of the player.
+     * @param module The staff module to check.
+     * @return {@link Boolean} value of weather the module is enabled for the player.
+     */
+    public boolean isEnabled(UUID player, StaffModule module) {
+        return enabledPlayers.get(module).contains(player);
+    }
+
+    /**
+     * Get every player that has a module enabled.
+     *
+     * @param module The staff module.
+     * @return An unmodifiable live view of the unique ids of the players with the module enabled.
+     */
+    public Set<UUID> getPlayersWithModule(StaffModule module) {
+        return Collections.unmodifiableSet(enabledPlayers.get(module));
+    }
+
+    /**
+     * Replace the state of a player. Updates of the same player from different threads
+     * (the netty thread handling the client, the thread handling their quit) take turns,
+     * so the sets of each module always match the state.
+     *
+     * @param player The unique id of the player.
+     * @param state  The new state of the player.
+     * @return A bitmask of the modules whose state changed.
+     */
+    public int update(UUID player, int state) {
+        final int[] changed = new int[1];
+        states.compute(player, (id, previous) -> {
+            changed[0] = (previous == null ? 0 : previous) ^ state;
+
+            for (StaffModule module : MODULES) {
+                final int bit = bit(module);
+                if ((changed[0] & bit) == 0) {
+                    continue;
+                }
+                if ((state & bit) != 0) {
+                    enabledPlayers.get(module).add(player);
+                } else {
+                    enabledPlayers.get(module).remove(player);
+                }
+            }
+            return state == 0 ? null : state;
+        });
+        return changed[0];
+    }
+
+    /**
+     * Forget the state of a player.
+     *
+     * @param player The unique id of the player.
+     */
+    public void clear(UUID player) {
+        this.update(player, 0);
+    }
+}
@@ -0,0 +1,231 @@
+package com.lunarclient.bukkitapi.template;
+
+import com.google.common.base.Preconditions;
+import com.lunarclient.bukkitapi.LCEncodedPacket;
+import com.lunarclient.bukkitapi.LunarClientAPI;
+import com.lunarclient.bukkitapi.nethandler.LCPacket;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import org.bukkit.ChatColor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Lines of text with placeholders, like {@code "&c{team} &f{name} &7[{kills}]"}, parsed once.
+ * <p>
+ * Color codes written with {@code &} are translated when the template is compiled, so rendering
+ * a line only joins the translated text with the values of its placeholders. Values are inserted
+ * as they are, color codes in them are not translated (player names can't add colors).
+ * <p>
+ * Values are set on a {@link LCTemplateBinding}, which only renders the lines that use a placeholder
+ * that changed. Packets encoded from the same lines are shared by every binding of the template,
+ * so viewers seeing identical output are sent the same bytes.
+ */
+public final class LCTemplate {
+
+    // At most this many placeholders, as each line tracks the placeholders it uses in a long.
+    private static final int MAX_PLACEHOLDERS = Long.SIZE;
+    // Encoded packets kept for sharing between bindings.
+    private static final int MAX_SHARED = 256;
+    private static final ChatColor[] COLORS_BY_CODE = new ChatColor[128];
+
+    static {
+        for (ChatColor color : LunarClientAPI.CHAT_COLORS) {
+            COLORS_BY_CODE[Character.toLowerCase(color.getChar())] = color;
+            COLORS_BY_CODE[Character.toUpperCase(color.getChar())] = color;
+        }
+    }
+
+    private final List<String> placeholders;
+    private final Line[] lines;
+    private final Map<SharedKey, LCEncodedPacket> shared = new LinkedHashMap<SharedKey, LCEncodedPacket>(16, 0.75F, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<SharedKey, LCEncodedPacket> eldest) {
+            return size() > MAX_SHARED;
+        }
+    };
+
+    private LCTemplate(List<String> placeholders, Line[] lines) {
+        this.placeholders = Collections.unmodifiableList(placeholders);
+        this.lines = lines;
+    }
+
+    /**
+     * Compile lines of text into a template.
+     *
+     * @param lines The lines, with {@code &} color codes and {@code {placeholder}} names.
+     * @return The template.
+     */
+    public static LCTemplate compile(String... lines) {
+        return compile(Arrays.asList(lines));
+    }
+
+    /**
+     * Compile lines of text into a template.
+     *
+     * @param lines The lines, with {@code &} color codes and {@code {placeholder}} names.
+     * @return The template.
+     * @throws IllegalArgumentException If the lines use more than 64 different placeholders.
+     */
+    public static LCTemplate compile(List<String> lines) {
+        final List<String> placeholders = new ArrayList<>();
+        final Line[] compiled = new Line[lines.size()];
+        for (int i = 0; i < compiled.length; i++) {
+            compiled[i] = compileLine(Preconditions.checkNotNull(lines.get(i), "Template line cannot be null."), placeholders);
+        }
+        Preconditions.checkArgument(placeholders.size() <= MAX_PLACEHOLDERS, "Templates can have at most " + MAX_PLACEHOLDERS + " placeholders.");
+        return new LCTemplate(placeholders, compiled);
+    }
+
+    /**
+     * Create a new set of values for this template, all placeholders start empty.
+     *
+     * @return The binding.
+     */
+    public LCTemplateBinding bind() {
+        return new LCTemplateBinding(this);
+    }
+
+    /**
+     * Get the names of the placeholders in the template.
+     *
+     * @return The placeholder names, in the order they first appear.
+     */
+    public List<String> getPlaceholders() {
+        return placeholders;
+    }
+
+    /**
+     * Get the amount of lines in the template.
+     *
+     * @return The amount of lines.
+     */
+    public int getLineCount() {
+        return lines.length;
+    }
+
+    int indexOf(String placeholder) {
+        final int index = placeholders.indexOf(placeholder);
+        Preconditions.checkArgument(index >= 0, "The template has no placeholder " + placeholder + ".");
+        return index;
+    }
+
+    long getDependencies(int line) {
+        return lines[line].dependencies;
+    }
+
+    /**
+     * Render a line with the current values.
+     *
+     * @param line    The index of the line.
+     * @param values  The values of every placeholder.
+     * @param builder A builder to render into, cleared first.
+     * @return The rendered line.
+     */
+    String render(int line, String[] values, StringBuilder builder) {
+        final Line compiled = lines[line];
+        if (compiled.slots.length == 0) {
+            return compiled.text[0];
+        }
+
+        builder.setLength(0);
+        builder.append(compiled.text[0]);
+        for (int i = 0; i < compiled.slots.length; i++) {
+            builder.append(values[compiled.slots[i]]).append(compiled.text[i + 1]);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Get the encoded packet for rendered lines, encoding it only if no binding
+     * of this template has encoded the same packet recently.
+     *
+     * @param type    What kind of packet, so different packets with the same lines aren't confused.
+     * @param id      The id the packet is for, like the target of a nametag.
+     * @param lines   The rendered lines.
+     * @param factory Creates the packet if it has to be encoded.
+     * @return The encoded packet.
+     */
+    LCEncodedPacket share(Class<? extends LCPacket> type, UUID id, List<String> lines, Supplier<LCPacket> factory) {
+        final SharedKey key = new SharedKey(type, id, lines);
+        synchronized (shared) {
+            final LCEncodedPacket packet = shared.get(key);
+            if (packet != null) {
+                return packet;
+            }
+        }
+
+        // Encode outside of the lock, at worst two bindings encode the same packet at once.
+        final LCEncodedPacket packet = new LCEncodedPacket(factory.get());
+        synchronized (shared) {
+            shared.put(key, packet);
+        }
+        return packet;
+    }
+
+    private static Line compileLine(String line, List<String> placeholders) {
+        final List<String> text = new ArrayList<>();
+        final List<Integer> slots = new ArrayList<>();
+        final StringBuilder builder = new StringBuilder(line.length());
+        long dependencies = 0;
+
+        for (int i = 0; i < line.length(); i++) {
+            final char c = line.charAt(i);
+            if (c == '&' && i + 1 < line.length() && line.charAt(i + 1) < 128 && COLORS_BY_CODE[line.charAt(i + 1)] != null) {
+                builder.append(COLORS_BY_CODE[line.charAt(++i)]);
+            } else if (c == '{' && line.indexOf('}', i) > i + 1) {
+                final int end = line.indexOf('}', i);
+                final String name = line.substring(i + 1, end);
+                int index = placeholders.indexOf(name);
+                if (index < 0) {
+                    placeholders.add(name);
+                    index = placeholders.size() - 1;
+                }
+
+                text.add(builder.toString());
+                builder.setLength(0);
+                slots.add(index);
+                if (index < MAX_PLACEHOLDERS) {
+                    dependencies |= 1L << index;
+                }
+                i = end;
+            } else {
+                builder.append(c);
+            }
+        }
+        text.add(builder.toString());
+
+        final int[] slotArray = new int[slots.size()];
+        for (int i = 0; i < slotArray.length; i++) {
+            slotArray[i] = slots.get(i);
+        }
+        return new Line(text.toArray(new String[0]), slotArray, dependencies);
+    }
+
+    @RequiredArgsConstructor
+    private static final class Line {
+
+        // The translated text around the placeholders, one longer than slots.
+        private final String[] text;
+        // The placeholder shown after each piece of text.
+        private final int[] slots;
+        // A bit for every placeholder the line uses.
+        private final long dependencies;
+    }
+
+    @RequiredArgsConstructor
+    @EqualsAndHashCode
+    private static final class SharedKey {
+
+        private final Class<? extends LCPacket> type;
+        private final UUID id;
+        private final List<String> lines;
+    }
+}
@@ -0,0 +1,163 @@
+package com.lunarclient.bukkitapi.template;
+
+import com.lunarclient.bukkitapi.LCEncodedPacket;
+import com.lunarclient.bukkitapi.nethandler.client.LCPacketHologramUpdate;
+import com.lunarclient.bukkitapi.nethandler.client.LCPacketNametagsOverride;
+import lombok.Getter;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The values of the placeholders of a {@link LCTemplate}, with the lines rendered from them.
+ * <p>
+ * Setting a placeholder to the value it already has does nothing, and otherwise only marks the lines
+ * using it. Those lines are rendered the next time the lines are needed, every other line is kept.
+ * <p>
+ * Bindings are not thread safe, set values and send them from the same thread.
+ */
+public final class LCTemplateBinding {
+
+    @Getter
+    private final LCTemplate template;
+    private final String[] values;
+    // The last number each placeholder was set to, so setting the same number again doesn't format it.
+    private final long[] numbers;
+    private final boolean[] numeric;
+    private final String[] rendered;
+    private final StringBuilder builder = new StringBuilder();
+    // A bit for every placeholder that changed since the lines were rendered.
+    private long changed;
+    private boolean dirtyAll = true;
+    private List<String> lines;
+    // The last packet encoded from the current lines, reused until a line changes.
+    private LCEncodedPacket encoded;
+    private Class<?> encodedType;
+    private UUID encodedId;
+
+    LCTemplateBinding(LCTemplate template) {
+        this.template = template;
+        this.values = new String[template.getPlaceholders().size()];
+        this.numbers = new long[values.length];
+        this.numeric = new boolean[values.length];
+        this.rendered = new String[template.getLineCount()];
+        Arrays.fill(values, "");
+    }
+
+    /**
+     * Set the value of a placeholder.
+     *
+     * @param placeholder The name of the placeholder.
+     * @param value       The value, shown as it is.
+     * @return This binding.
+     * @throws IllegalArgumentException If the template has no such placeholder.
+     */
+    public LCTemplateBinding set(String placeholder, String value) {
+        final int index = template.indexOf(placeholder);
+        final String text = value == null ? "" : value;
+        this.numeric[index] = false;
+        if (!values[index].equals(text)) {
+            this.values[index] = text;
+            this.markChanged(index);
+        }
+        return this;
+    }
+
+    /**
+     * Set the value of a placeholder to a number, which is only formatted when it changes.
+     *
+     * @param placeholder The name of the placeholder.
+     * @param value       The value.
+     * @return This binding.
+     * @throws IllegalArgumentException If the template has no such placeholder.
+     */
+    public LCTemplateBinding set(String placeholder, long value) {
+        final int index = template.indexOf(placeholder);
+        if (!numeric[index] || numbers[index] != value) {
+            this.numeric[index] = true;
+            this.numbers[index] = value;
+            final String text = Long.toString(value);
+            if (!values[index].equals(text)) {
+                this.values[index] = text;
+                this.markChanged(index);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Get the value of a placeholder.
+     *
+     * @param placeholder The name of the placeholder.
+     * @return The value, empty if it was never set.
+     */
+    public String get(String placeholder) {
+        return values[template.indexOf(placeholder)];
+    }
+
+    /**
+     * Get the rendered lines, rendering only the lines that changed.
+     *
+     * @return The lines. The same list is returned until a value changes, it can't be modified.
+     */
+    public List<String> getLines() {
+        if (dirtyAll || changed != 0) {
+            for (int i = 0; i < rendered.length; i++) {
+                if (dirtyAll || (template.getDependencies(i) & changed) != 0) {
+                    this.rendered[i] = template.render(i, values, builder);
+                }
+            }
+            this.dirtyAll = false;
+            this.changed = 0;
+            this.lines = Collections.unmodifiableList(Arrays.asList(rendered.clone()));
+        }
+        return lines;
+    }
+
+    /**
+     * Encode the lines as the nametag of a player.
+     *
+     * @param target The player whose nametag it is.
+     * @return The encoded packet, the same packet as long as nothing changed.
+     * @see com.lunarclient.bukkitapi.LunarClientAPI#overrideNametag(org.bukkit.entity.Player, LCTemplateBinding, org.bukkit.entity.Player)
+     */
+    public LCEncodedPacket encodeNametag(UUID target) {
+        final List<String> lines = this.getLines();
+        if (encodedType == LCPacketNametagsOverride.class && target.equals(encodedId)) {
+            return encoded;
+        }
+        return this.remember(LCPacketNametagsOverride.class, target,
+                template.share(LCPacketNametagsOverride.class, target, lines, () -> new LCPacketNametagsOverride(target, lines)));
+    }
+
+    /**
+     * Encode the lines as an update of a hologram.
+     *
+     * @param id The id of the hologram.
+     * @return The encoded packet, the same packet as long as nothing changed.
+     * @see com.lunarclient.bukkitapi.LunarClientAPI#updateHologram(org.bukkit.entity.Player, UUID, LCTemplateBinding)
+     */
+    public LCEncodedPacket encodeHologramUpdate(UUID id) {
+        final List<String> lines = this.getLines();
+        if (encodedType == LCPacketHologramUpdate.class && id.equals(encodedId)) {
+            return encoded;
+        }
+        return this.remember(LCPacketHologramUpdate.class, id,
+                template.share(LCPacketHologramUpdate.class, id, lines, () -> new LCPacketHologramUpdate(id, lines)));
+    }
+
+    private LCEncodedPacket remember(Class<?> type, UUID id, LCEncodedPacket packet) {
+        this.encodedType = type;
+        this.encodedId = id;
+        this.encoded = packet;
+        return packet;
+    }
+
+    private void markChanged(int placeholder) {
+        this.changed |= 1L << placeholder;
+        this.encodedType = null;
+        this.encoded = null;
+    }
+}
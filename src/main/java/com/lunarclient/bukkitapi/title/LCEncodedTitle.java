@@ -0,0 +1,33 @@
+package com.lunarclient.bukkitapi.title;
+
+import com.lunarclient.bukkitapi.LCEncodedPacket;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A title that has been built and encoded once, ready to be
+ * queued for any number of players with the {@link LCTitleScheduler}.
+ * <p>
+ * Create one with {@link LCTitleBuilder#buildEncoded()}.
+ */
+@Getter
+@AllArgsConstructor
+public final class LCEncodedTitle {
+
+    private final TitleType type;
+    private final String message;
+    // fade in + display + fade out, how long the title occupies its slot on the client.
+    private final long durationMillis;
+    private final LCEncodedPacket packet;
+
+    /**
+     * Checks if another title would show the same thing to the player.
+     *
+     * @param other The title to compare to.
+     * @return {@link Boolean} value of weather both titles have the same type and message.
+     */
+    public boolean isDuplicate(LCEncodedTitle other) {
+        return this.type == other.type && this.message.equals(other.message);
+    }
+
+}
@@ -1,6 +1,8 @@
 package com.lunarclient.bukkitapi.title;
 
+import com.lunarclient.bukkitapi.LCEncodedPacket;
 import com.lunarclient.bukkitapi.LunarClientAPI;
+import com.lunarclient.bukkitapi.audience.LCAudience;
 import com.lunarclient.bukkitapi.nethandler.client.LCPacketTitle;
 import org.bukkit.entity.Player;
 
@@ -150,9 +152,66 @@ public final class LCTitleBuilder {
      */
     public LCPacketTitle sendAndBuild(Player... players) {
         final LCPacketTitle title = build();
+        final LCEncodedPacket encoded = new LCEncodedPacket(title);
         for (Player player : players) {
-            LunarClientAPI.getInstance().sendPacket(player, title);
+            LunarClientAPI.getInstance().sendPacket(player, encoded);
         }
         return title;
     }
+
+    /**
+     * Take all the inputs from the builder and convert it into
+     * a single encoded title that can be queued with the {@link LCTitleScheduler}.
+     * <p>
+     * The title is only encoded once, no matter how many players it is queued for.
+     *
+     * @return The {@link LCEncodedTitle} to queue for Lunar Client users as needed.
+     */
+    public LCEncodedTitle buildEncoded() {
+        final long duration = fadeInDuration.toMillis() + displayDuration.toMillis() + fadeOutDuration.toMillis();
+        return new LCEncodedTitle(type, message, duration, new LCEncodedPacket(build()));
+    }
+
+    /**
+     * Builds the current title and queues it for all players required.
+     * <p>
+     * Unlike {@link #sendAndBuild(Player...)}, the title won't overwrite a title
+     * that is already showing, it is shown once that title has faded out.
+     * If the player is already seeing (or waiting to see) the same message, it is not queued again.
+     *
+     * @param players All the {@link Player} that need to see the title.
+     * @return The {@link LCEncodedTitle} generated that can be queued again later if needed.
+     */
+    public LCEncodedTitle queue(Player... players) {
+        final LCEncodedTitle title = buildEncoded();
+        LunarClientAPI.getInstance().getTitleScheduler().schedule(title, players);
+        return title;
+    }
+
+    /**
+     * Builds the current packet and sends it to every member of an audience.
+     *
+     * @param audience The audience that needs to see the title.
+     * @return The {@link LCPacketTitle} generated that can be used later if needed.
+     * @see #sendAndBuild(Player...)
+     */
+    public LCPacketTitle sendAndBuild(LCAudience audience) {
+        final LCPacketTitle title = build();
+        audience.send(title);
+        return title;
+    }
+
+    /**
+     * Builds the current title and queues it for every member of an audience.
+     *
+     * @param audience The audience that needs to see the title.
+     * @return The {@link LCEncodedTitle} generated that can be queued again later if needed.
+     * @see #queue(Player...)
+     */
+    public LCEncodedTitle queue(LCAudience audience) {
+        final LCEncodedTitle title = buildEncoded();
+        final LCTitleScheduler scheduler = LunarClientAPI.getInstance().getTitleScheduler();
+        audience.forEach(player -> scheduler.schedule(player, title));
+        return title;
+    }
 }
@@ -0,0 +1,160 @@
+package com.lunarclient.bukkitapi.title;
+
+import com.lunarclient.bukkitapi.LunarClientAPI;
+import lombok.RequiredArgsConstructor;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Queues titles per player and {@link TitleType}, so titles sent around the same time
+ * are shown one after another instead of overwriting each other.
+ * <p>
+ * A title is sent as soon as nothing else is showing in its slot, otherwise it waits
+ * until the title before it has faded out. A title that is already showing or waiting
+ * in the same slot with the same message is not queued again.
+ * <p>
+ * Every queue is advanced by a single task that runs each tick (on the global region
+ * of region threaded servers). Titles may be queued from any thread.
+ */
+@RequiredArgsConstructor
+public final class LCTitleScheduler implements Runnable {
+
+    private static final TitleType[] TITLE_TYPES = TitleType.values();
+
+    private final LunarClientAPI lunarClientAPI;
+    // The most titles that can wait in a single slot, once full the oldest waiting title is dropped.
+    private final int maxQueued;
+    private final Map<UUID, PlayerTitles> players = new HashMap<>();
+
+    /**
+     * Queue a title for a player.
+     *
+     * @param player The player to show the title to.
+     * @param title  The title to show.
+     * @return {@link Boolean} value of weather the title was queued, false if it was a duplicate.
+     */
+    public synchronized boolean schedule(Player player, LCEncodedTitle title) {
+        final long now = System.currentTimeMillis();
+        final Slot slot = players.computeIfAbsent(player.getUniqueId(), uuid -> new PlayerTitles(player)).slots[title.getType().ordinal()];
+
+        if (slot.isShowing(now) && slot.showing.isDuplicate(title)) {
+            return false;
+        }
+
+        for (Iterator<LCEncodedTitle> iterator = slot.queue.iterator(); iterator.hasNext(); ) {
+            final LCEncodedTitle queued = iterator.next();
+            if (!queued.isDuplicate(title)) {
+                continue;
+            }
+            // Merge the two, keeping the position of the one already waiting but the longer duration.
+            if (title.getDurationMillis() <= queued.getDurationMillis()) {
+                return false;
+            }
+            final ArrayDeque<LCEncodedTitle> merged = new ArrayDeque<>(slot.queue.size());
+            for (LCEncodedTitle existing : slot.queue) {
+                merged.add(existing == queued ? title : existing);
+            }
+            slot.queue = merged;
+            return true;
+        }
+
+        if (!slot.isShowing(now) && slot.queue.isEmpty()) {
+            slot.show(player, title, now);
+            return true;
+        }
+
+        if (slot.queue.size() >= maxQueued) {
+            slot.queue.pollFirst();
+        }
+        slot.queue.addLast(title);
+        return true;
+    }
+
+    /**
+     * Queue a title for many players, sharing the same encoded title between all of them.
+     *
+     * @param title   The title to show.
+     * @param players The players to show the title to.
+     */
+    public void schedule(LCEncodedTitle title, Player... players) {
+        for (Player player : players) {
+            this.schedule(player, title);
+        }
+    }
+
+    /**
+     * Forget every title waiting for a player.
+     *
+     * @param player The player that quit.
+     */
+    public synchronized void clear(Player player) {
+        this.players.remove(player.getUniqueId());
+    }
+
+    /**
+     * Sends the next waiting title for every slot whose current title has ended.
+     */
+    @Override
+    public synchronized void run() {
+        if (players.isEmpty()) {
+            return;
+        }
+
+        final long now = System.currentTimeMillis();
+        for (Iterator<PlayerTitles> iterator = players.values().iterator(); iterator.hasNext(); ) {
+            final PlayerTitles titles = iterator.next();
+            boolean idle = true;
+
+            for (Slot slot : titles.slots) {
+                if (slot.isShowing(now)) {
+                    idle = false;
+                    continue;
+                }
+                final LCEncodedTitle next = slot.queue.pollFirst();
+                if (next != null) {
+                    slot.show(titles.player, next, now);
+                    idle = false;
+                }
+            }
+
+            if (idle) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private final class PlayerTitles {
+
+        private final Player player;
+        private final Slot[] slots = new Slot[TITLE_TYPES.length];
+
+        private PlayerTitles(Player player) {
+            this.player = player;
+            for (int i = 0; i < slots.length; i++) {
+                slots[i] = new Slot();
+            }
+        }
+    }
+
+    private final class Slot {
+
+        private ArrayDeque<LCEncodedTitle> queue = new ArrayDeque<>();
+        private LCEncodedTitle showing;
+        private long showingUntil;
+
+        private boolean isShowing(long now) {
+            return showing != null && now < showingUntil;
+        }
+
+        private void show(Player player, LCEncodedTitle title, long now) {
+            this.showing = title;
+            this.showingUntil = now + title.getDurationMillis();
+            lunarClientAPI.sendPacket(player, title.getPacket());
+        }
+    }
+}
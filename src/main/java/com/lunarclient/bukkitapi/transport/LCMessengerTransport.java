@@ -0,0 +1,50 @@
+package com.lunarclient.bukkitapi.transport;
+
+import com.lunarclient.bukkitapi.nethandler.LCPacket;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import lombok.RequiredArgsConstructor;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+
+/**
+ * Sends plugin messages through Bukkit's {@link org.bukkit.plugin.messaging.Messenger}.
+ * <p>
+ * This works on every server, but needs every message as a heap array.
+ */
+@RequiredArgsConstructor
+public final class LCMessengerTransport implements LCPacketTransport {
+
+    private final Plugin plugin;
+
+    @Override
+    public ByteBuf encode(Player player, LCPacket packet) {
+        return Unpooled.wrappedBuffer(LCPacket.getPacketData(packet));
+    }
+
+    @Override
+    public void send(Player player, String channel, ByteBuf data) {
+        try {
+            player.sendPluginMessage(plugin, channel, toArray(data));
+        } finally {
+            data.release();
+        }
+    }
+
+    /**
+     * Get the readable bytes of a buffer as an array,
+     * without copying when the buffer already wraps exactly that array.
+     *
+     * @param data The buffer.
+     * @return The readable bytes of the buffer.
+     */
+    static byte[] toArray(ByteBuf data) {
+        if (data.hasArray() && data.arrayOffset() == 0 && data.readerIndex() == 0
+                && data.readableBytes() == data.array().length) {
+            return data.array();
+        }
+        final byte[] bytes = new byte[data.readableBytes()];
+        data.getBytes(data.readerIndex(), bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,169 @@
+package com.lunarclient.bukkitapi.transport;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reflective access to the parts of the server that Bukkit doesn't expose:
+ * a player's Netty {@link Channel}, and the custom payload packets that carry plugin messages.
+ * <p>
+ * Everything is looked up once. If anything can't be found {@link #load()}
+ * throws, and callers fall back to Bukkit's messenger.
+ */
+final class LCMinecraftReflection {
+
+    private final Method getHandle;
+    private final Field playerConnection;
+    private final Field networkManager;
+    private final Field channel;
+    private final Constructor<?> serializerConstructor;
+    private final Constructor<?> payloadConstructor;
+    private final Constructor<?> channelNameConstructor;
+    private final Class<?> inboundPayloadClass;
+    private final Field inboundChannelName;
+    private final Field inboundData;
+    private final Map<String, Object> channelNames = new ConcurrentHashMap<>();
+
+    private LCMinecraftReflection() throws ReflectiveOperationException {
+        final String craftPackage = Bukkit.getServer().getClass().getPackage().getName();
+        final String version = craftPackage.substring(craftPackage.lastIndexOf('.') + 1);
+        final String nmsPackage = "net.minecraft.server." + version;
+
+        final Class<?> craftPlayer = Class.forName(craftPackage + ".entity.CraftPlayer");
+        final Class<?> connectionClass = Class.forName(nmsPackage + ".PlayerConnection");
+        final Class<?> networkManagerClass = Class.forName(nmsPackage + ".NetworkManager");
+        final Class<?> serializerClass = Class.forName(nmsPackage + ".PacketDataSerializer");
+
+        this.getHandle = craftPlayer.getMethod("getHandle");
+        this.playerConnection = findField(getHandle.getReturnType(), connectionClass);
+        this.networkManager = findField(connectionClass, networkManagerClass);
+        this.channel = findField(networkManagerClass, Channel.class);
+        this.serializerConstructor = serializerClass.getConstructor(ByteBuf.class);
+
+        Constructor<?> payload = null;
+        for (Constructor<?> constructor : Class.forName(nmsPackage + ".PacketPlayOutCustomPayload").getConstructors()) {
+            final Class<?>[] parameters = constructor.getParameterTypes();
+            if (parameters.length == 2 && parameters[1] == serializerClass) {
+                payload = constructor;
+            }
+        }
+        if (payload == null) {
+            throw new NoSuchMethodException("PacketPlayOutCustomPayload(channel, PacketDataSerializer)");
+        }
+        this.payloadConstructor = payload;
+
+        // Older versions name channels with a String, newer versions with a MinecraftKey.
+        final Class<?> channelNameType = payload.getParameterTypes()[0];
+        this.channelNameConstructor = channelNameType == String.class ? null : channelNameType.getConstructor(String.class);
+
+        this.inboundPayloadClass = Class.forName(nmsPackage + ".PacketPlayInCustomPayload");
+        this.inboundChannelName = findField(inboundPayloadClass, channelNameType);
+        this.inboundData = findField(inboundPayloadClass, serializerClass);
+    }
+
+    /**
+     * Look up everything needed for the running server version.
+     *
+     * @return The loaded reflection.
+     * @throws ReflectiveOperationException If the server doesn't look like CraftBukkit.
+     */
+    static LCMinecraftReflection load() throws ReflectiveOperationException {
+        return new LCMinecraftReflection();
+    }
+
+    /**
+     * Get the Netty channel of a player.
+     *
+     * @param player The online player.
+     * @return The channel of the player, or null if the player has no connection (like a fake player).
+     */
+    Channel getChannel(Player player) {
+        try {
+            final Object connection = playerConnection.get(getHandle.invoke(player));
+            if (connection == null) {
+                return null;
+            }
+            final Object manager = networkManager.get(connection);
+            return manager == null ? null : (Channel) channel.get(manager);
+        } catch (ReflectiveOperationException | ClassCastException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Create an outgoing custom payload packet that reads from the given buffer.
+     *
+     * @param channelName The plugin channel.
+     * @param data        The message.
+     * @return The packet, ready to be written to a player's channel.
+     * @throws ReflectiveOperationException If the packet can't be created.
+     */
+    Object createPayload(String channelName, ByteBuf data) throws ReflectiveOperationException {
+        return payloadConstructor.newInstance(toChannelName(channelName), serializerConstructor.newInstance(data));
+    }
+
+    /**
+     * Checks if an object is an incoming custom payload packet.
+     *
+     * @param packet The decoded packet.
+     * @return {@link Boolean} value of weather the packet carries a plugin message from the client.
+     */
+    boolean isInboundPayload(Object packet) {
+        return inboundPayloadClass.isInstance(packet);
+    }
+
+    /**
+     * Get the plugin channel of an incoming custom payload packet.
+     *
+     * @param packet The incoming custom payload packet.
+     * @return The name of the channel, like "lunarclient:pm".
+     * @throws ReflectiveOperationException If the channel can't be read.
+     */
+    String getInboundChannel(Object packet) throws ReflectiveOperationException {
+        return String.valueOf(inboundChannelName.get(packet));
+    }
+
+    /**
+     * Get the message of an incoming custom payload packet.
+     *
+     * @param packet The incoming custom payload packet.
+     * @return The buffer holding the message, still owned by the packet.
+     * @throws ReflectiveOperationException If the message can't be read.
+     */
+    ByteBuf getInboundData(Object packet) throws ReflectiveOperationException {
+        return (ByteBuf) inboundData.get(packet);
+    }
+
+    private Object toChannelName(String name) throws ReflectiveOperationException {
+        if (channelNameConstructor == null) {
+            return name;
+        }
+        final Object cached = channelNames.get(name);
+        if (cached != null) {
+            return cached;
+        }
+        final Object created = channelNameConstructor.newInstance(name);
+        channelNames.put(name, created);
+        return created;
+    }
+
+    private static Field findField(Class<?> owner, Class<?> type) throws NoSuchFieldException {
+        for (Class<?> clazz = owner; clazz != null && clazz != Object.class; clazz = clazz.getSuperclass()) {
+            for (Field field : clazz.getDeclaredFields()) {
+                if (type.isAssignableFrom(field.getType())) {
+                    field.setAccessible(true);
+                    return field;
+                }
+            }
+        }
+        throw new NoSuchFieldException(type.getSimpleName() + " in " + owner.getName());
+    }
+}
@@ -0,0 +1,111 @@
+package com.lunarclient.bukkitapi.transport;
+
+import com.lunarclient.bukkitapi.nethandler.LCPacket;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFutureListener;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+
+/**
+ * Writes plugin messages straight to each player's Netty channel.
+ * <p>
+ * Packets are encoded into pooled buffers from the channel's own allocator, and the
+ * buffer is handed to the connection as is and released once it has been written,
+ * so no heap array is created for the message at all.
+ * <p>
+ * Players without a channel (like fake players) are sent to through the messenger instead.
+ */
+public final class LCNettyTransport implements LCPacketTransport {
+
+    private final LCMinecraftReflection reflection;
+    private final LCMessengerTransport fallback;
+    private final Map<UUID, Channel> channels = new ConcurrentHashMap<>();
+
+    private LCNettyTransport(LCMinecraftReflection reflection, Plugin plugin) {
+        this.reflection = reflection;
+        this.fallback = new LCMessengerTransport(plugin);
+    }
+
+    /**
+     * Create a Netty transport if the server allows direct access to connections.
+     *
+     * @param plugin The plugin sending the messages.
+     * @return The transport, or null if the server internals could not be found.
+     */
+    public static LCNettyTransport create(Plugin plugin) {
+        try {
+            return new LCNettyTransport(LCMinecraftReflection.load(), plugin);
+        } catch (ReflectiveOperationException | RuntimeException ex) {
+            plugin.getLogger().log(Level.INFO, "Direct connection access is not available, using the Bukkit messenger.", ex);
+            return null;
+        }
+    }
+
+    @Override
+    public ByteBuf encode(Player player, LCPacket packet) {
+        final Channel channel = this.getChannel(player);
+        return LCPacketEncoder.encode(packet, channel == null ? PooledByteBufAllocator.DEFAULT : channel.alloc());
+    }
+
+    @Override
+    public void send(Player player, String channelName, ByteBuf data) {
+        final Channel channel = this.getChannel(player);
+        if (channel == null) {
+            fallback.send(player, channelName, data);
+            return;
+        }
+
+        final Object payload;
+        try {
+            payload = reflection.createPayload(channelName, data);
+        } catch (ReflectiveOperationException | RuntimeException ex) {
+            fallback.send(player, channelName, data);
+            return;
+        }
+
+        // The payload packet reads from our buffer while it is encoded, but never releases it.
+        channel.writeAndFlush(payload).addListener((ChannelFutureListener) future -> data.release());
+    }
+
+    /**
+     * Get the server internals this transport was created with.
+     *
+     * @return The reflection used to reach connections.
+     */
+    LCMinecraftReflection getReflection() {
+        return reflection;
+    }
+
+    @Override
+    public void clear(Player player) {
+        this.channels.remove(player.getUniqueId());
+    }
+
+    /**
+     * Get the channel of a player, if it is still open.
+     *
+     * @param player The player.
+     * @return The open channel of the player, or null if there isn't one.
+     */
+    Channel getChannel(Player player) {
+        Channel channel = channels.get(player.getUniqueId());
+        if (channel != null && channel.isOpen()) {
+            return channel;
+        }
+
+        channel = reflection.getChannel(player);
+        if (channel == null || !channel.isOpen()) {
+            channels.remove(player.getUniqueId());
+            return null;
+        }
+        channels.put(player.getUniqueId(), channel);
+        return channel;
+    }
+}
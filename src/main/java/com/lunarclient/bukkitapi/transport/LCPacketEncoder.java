@@ -0,0 +1,54 @@
+package com.lunarclient.bukkitapi.transport;
+
+import com.lunarclient.bukkitapi.nethandler.ByteBufWrapper;
+import com.lunarclient.bukkitapi.nethandler.LCPacket;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.Unpooled;
+import lombok.experimental.UtilityClass;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Encodes {@link LCPacket}s straight into a buffer from any allocator,
+ * producing the same bytes as {@link LCPacket#getPacketData(LCPacket)}
+ * without the intermediate heap array.
+ */
+@UtilityClass
+public class LCPacketEncoder {
+
+    // The nethandler does not expose packet ids, so the id of each packet class
+    // is read from the first packet of that class encoded the regular way.
+    private final Map<Class<?>, Integer> packetIds = new ConcurrentHashMap<>();
+
+    /**
+     * Encode a packet into a new buffer.
+     *
+     * @param packet    The packet to encode.
+     * @param allocator The allocator the buffer is taken from.
+     * @return A buffer containing the encoded packet, which the caller must release.
+     */
+    public ByteBuf encode(LCPacket packet, ByteBufAllocator allocator) {
+        final int packetId = packetIds.computeIfAbsent(packet.getClass(), clazz -> readPacketId(packet));
+        final ByteBuf buf = allocator.buffer();
+        try {
+            final ByteBufWrapper wrapper = new ByteBufWrapper(buf);
+            wrapper.writeVarInt(packetId);
+            packet.write(wrapper);
+            return buf;
+        } catch (IOException ex) {
+            buf.release();
+            throw new UncheckedIOException("Failed to encode " + packet.getClass().getSimpleName(), ex);
+        } catch (RuntimeException ex) {
+            buf.release();
+            throw ex;
+        }
+    }
+
+    private int readPacketId(LCPacket packet) {
+        return new ByteBufWrapper(Unpooled.wrappedBuffer(LCPacket.getPacketData(packet))).readVarInt();
+    }
+}
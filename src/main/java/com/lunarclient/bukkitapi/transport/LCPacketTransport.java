@@ -0,0 +1,41 @@
+package com.lunarclient.bukkitapi.transport;
+
+import com.lunarclient.bukkitapi.nethandler.LCPacket;
+import io.netty.buffer.ByteBuf;
+import org.bukkit.entity.Player;
+
+/**
+ * Moves encoded plugin messages from the API to a player's connection.
+ * <p>
+ * Every buffer handed to a transport becomes owned by it, the transport
+ * releases it once the message has been written (or failed to be).
+ */
+public interface LCPacketTransport {
+
+    /**
+     * Encode a packet in the way this transport can send most cheaply.
+     *
+     * @param player The player the packet will be sent to.
+     * @param packet The packet to encode.
+     * @return A buffer containing the encoded packet, which must be sent or released.
+     */
+    ByteBuf encode(Player player, LCPacket packet);
+
+    /**
+     * Send a plugin message to a player.
+     *
+     * @param player  The player to receive the message.
+     * @param channel The plugin channel to send the message on.
+     * @param data    The message, ownership passes to the transport.
+     */
+    void send(Player player, String channel, ByteBuf data);
+
+    /**
+     * Forget anything held for a player.
+     *
+     * @param player The player that quit.
+     */
+    default void clear(Player player) {
+    }
+
+}
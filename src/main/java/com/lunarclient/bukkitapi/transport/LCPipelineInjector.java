@@ -0,0 +1,150 @@
+package com.lunarclient.bukkitapi.transport;
+
+import com.lunarclient.bukkitapi.LunarClientAPI;
+import com.lunarclient.bukkitapi.fragment.LCPacketFragmenter;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelPipeline;
+import io.netty.util.ReferenceCountUtil;
+import lombok.RequiredArgsConstructor;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+import java.util.logging.Level;
+
+/**
+ * Installs a handler in each player's Netty pipeline that takes Lunar Client
+ * plugin messages out of the connection before they reach the server thread.
+ * <p>
+ * Messages on {@link LunarClientAPI#MESSAGE_CHANNEL} and {@link LCPacketFragmenter#FRAGMENT_CHANNEL}
+ * are decoded on the network thread and handed to {@link LunarClientAPI#handleIncomingPacket(Player, byte[])},
+ * every other packet passes through untouched. Sending is already done on the network thread
+ * by {@link LCNettyTransport}, so with both in place Lunar Client traffic never waits for a tick.
+ * <p>
+ * If a player's pipeline can't be reached the Bukkit messenger keeps handling their messages.
+ */
+@RequiredArgsConstructor
+public final class LCPipelineInjector implements Listener {
+
+    private static final String HANDLER_NAME = "lunarclient_pm";
+    private static final String SERVER_HANDLER_NAME = "packet_handler";
+
+    private final LunarClientAPI lunarClientAPI;
+    private final LCNettyTransport transport;
+
+    /**
+     * Install the handler for a player.
+     *
+     * @param player The online player.
+     * @return {@link Boolean} value of weather the handler was installed.
+     */
+    public boolean inject(Player player) {
+        final Channel channel = transport.getChannel(player);
+        if (channel == null) {
+            return false;
+        }
+
+        channel.eventLoop().execute(() -> {
+            final ChannelPipeline pipeline = channel.pipeline();
+            final ChannelHandler installed = pipeline.get(HANDLER_NAME);
+            if (installed instanceof LunarClientChannelHandler && ((LunarClientChannelHandler) installed).getInjector() == this) {
+                return;
+            }
+            if (installed != null) {
+                // Left behind by an earlier instance of the plugin (like before a reload), that would keep handling packets.
+                pipeline.replace(HANDLER_NAME, HANDLER_NAME, new LunarClientChannelHandler(player));
+            } else if (pipeline.get(SERVER_HANDLER_NAME) != null) {
+                pipeline.addBefore(SERVER_HANDLER_NAME, HANDLER_NAME, new LunarClientChannelHandler(player));
+            }
+        });
+        return true;
+    }
+
+    /**
+     * Remove the handler for a player, if it was installed.
+     *
+     * @param player The player.
+     */
+    public void uninject(Player player) {
+        final Channel channel = transport.getChannel(player);
+        if (channel == null) {
+            return;
+        }
+
+        channel.eventLoop().execute(() -> {
+            if (channel.pipeline().get(HANDLER_NAME) != null) {
+                channel.pipeline().remove(HANDLER_NAME);
+            }
+        });
+    }
+
+    /**
+     * Remove the handler for every online player, so nothing is handed to the plugin once it is disabled.
+     */
+    public void uninjectAll() {
+        for (Player player : lunarClientAPI.getServer().getOnlinePlayers()) {
+            this.uninject(player);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.LOWEST)
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        this.inject(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        this.uninject(event.getPlayer());
+    }
+
+    @RequiredArgsConstructor
+    private final class LunarClientChannelHandler extends ChannelInboundHandlerAdapter {
+
+        private final Player player;
+
+        private LCPipelineInjector getInjector() {
+            return LCPipelineInjector.this;
+        }
+
+        @Override
+        public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+            final LCMinecraftReflection reflection = transport.getReflection();
+            if (!reflection.isInboundPayload(msg)) {
+                super.channelRead(ctx, msg);
+                return;
+            }
+
+            final String channel = reflection.getInboundChannel(msg);
+            final boolean fragment = LCPacketFragmenter.FRAGMENT_CHANNEL.equals(channel);
+            if (!fragment && !LunarClientAPI.MESSAGE_CHANNEL.equals(channel)) {
+                super.channelRead(ctx, msg);
+                return;
+            }
+
+            // The server would have released the message after handling it, we do that instead.
+            final ByteBuf data = reflection.getInboundData(msg);
+            final byte[] bytes = new byte[data.readableBytes()];
+            data.getBytes(data.readerIndex(), bytes);
+            if (data.refCnt() > 0) {
+                ReferenceCountUtil.release(data);
+            }
+
+            try {
+                if (fragment) {
+                    lunarClientAPI.getFragmenter().receive(player, bytes, lunarClientAPI::handleIncomingPacket);
+                } else {
+                    lunarClientAPI.handleIncomingPacket(player, bytes);
+                }
+            } catch (RuntimeException ex) {
+                lunarClientAPI.getLogger().log(Level.WARNING, "Could not handle a Lunar Client packet from " + player.getName(), ex);
+            }
+        }
+    }
+}
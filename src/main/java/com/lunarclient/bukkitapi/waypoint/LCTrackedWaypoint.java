@@ -0,0 +1,348 @@
+package com.lunarclient.bukkitapi.waypoint;
+
+import com.google.common.base.Preconditions;
+import com.lunarclient.bukkitapi.LCEncodedPacket;
+import com.lunarclient.bukkitapi.LunarClientAPI;
+import com.lunarclient.bukkitapi.governor.LCTrafficCategory;
+import com.lunarclient.bukkitapi.nethandler.shared.LCPacketWaypointAdd;
+import com.lunarclient.bukkitapi.nethandler.shared.LCPacketWaypointRemove;
+import com.lunarclient.bukkitapi.scheduler.LCScheduler;
+import lombok.Getter;
+import org.bukkit.Location;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * A waypoint that follows a moving target, like an entity carrying a flag.
+ * <p>
+ * Instead of the waypoint being sent again every tick, the {@link LCWaypointTracker} samples the
+ * position of the target and only moves the waypoint once the target is a few blocks away from
+ * where viewers see it, and never more often than the interval. Every move is encoded once
+ * and the same bytes are sent to every viewer.
+ * <p>
+ * Viewers may be added and removed from any thread. On region threaded servers the target is sampled
+ * from the global region, so a {@link Supplier} of the position must be safe to call from there.
+ * Entity targets are read on the thread that owns the entity, and the waypoint follows the position
+ * read there on the previous sample.
+ */
+public final class LCTrackedWaypoint {
+
+    @Getter
+    private final String name;
+    @Getter
+    private final int color;
+    @Getter
+    private final boolean forced;
+    @Getter
+    private final boolean visible;
+    @Getter
+    private final double distance;
+    @Getter
+    private final int intervalTicks;
+    private final Supplier<Location> target;
+    private final List<Player> viewers = new ArrayList<>();
+    // The waypoint as viewers currently see it, null until the target has been sampled.
+    private String world;
+    private int x;
+    private int y;
+    private int z;
+    private LCEncodedPacket add;
+    private LCEncodedPacket remove;
+    private long nextSample;
+
+    private LCTrackedWaypoint(Builder builder) {
+        this.name = builder.name;
+        this.color = builder.color;
+        this.forced = builder.forced;
+        this.visible = builder.visible;
+        this.distance = builder.distance;
+        this.intervalTicks = builder.intervalTicks;
+        this.target = builder.target;
+    }
+
+    /**
+     * Start building a tracked waypoint.
+     *
+     * @param name The name of the waypoint, unique among the waypoints of a player.
+     * @return The builder.
+     */
+    public static Builder builder(String name) {
+        return new Builder(Preconditions.checkNotNull(name, "Waypoint name cannot be null."));
+    }
+
+    /**
+     * Show the waypoint to a player, at the position other viewers see it.
+     *
+     * @param player The player to show the waypoint to.
+     */
+    public synchronized void show(Player player) {
+        if (this.indexOf(player) >= 0) {
+            return;
+        }
+
+        this.viewers.add(player);
+        if (add != null) {
+            LunarClientAPI.getInstance().sendPacket(player, add);
+        }
+    }
+
+    /**
+     * Remove the waypoint for a player.
+     *
+     * @param player The player to hide the waypoint from.
+     */
+    public synchronized void hide(Player player) {
+        final int index = this.indexOf(player);
+        if (index >= 0) {
+            this.viewers.remove(index);
+            if (remove != null) {
+                LunarClientAPI.getInstance().sendPacket(player, remove);
+            }
+        }
+    }
+
+    /**
+     * Remove the waypoint for every viewer.
+     */
+    public synchronized void hideAll() {
+        if (remove != null) {
+            final LunarClientAPI lunarClientAPI = LunarClientAPI.getInstance();
+            for (int i = 0; i < viewers.size(); i++) {
+                lunarClientAPI.sendPacket(viewers.get(i), remove);
+            }
+        }
+        this.viewers.clear();
+    }
+
+    /**
+     * Checks if a player is seeing the waypoint.
+     *
+     * @param player The player.
+     * @return {@link Boolean} value of weather the waypoint is shown to the player.
+     */
+    public synchronized boolean isViewing(Player player) {
+        return this.indexOf(player) >= 0;
+    }
+
+    /**
+     * Forget a player without sending anything, as they are no longer online.
+     *
+     * @param player The player that quit.
+     */
+    synchronized void forget(Player player) {
+        final int index = this.indexOf(player);
+        if (index >= 0) {
+            this.viewers.remove(index);
+        }
+    }
+
+    /**
+     * Sample the target, and move the waypoint for every viewer if it moved far enough.
+     *
+     * @param tick The tick of the tracker.
+     */
+    synchronized void tick(long tick) {
+        if (tick < nextSample) {
+            return;
+        }
+
+        final Location location = target.get();
+        if (location == null || location.getWorld() == null) {
+            return;
+        }
+
+        final LunarClientAPI lunarClientAPI = LunarClientAPI.getInstance();
+        final String world = lunarClientAPI.getWorldIdentifier(location.getWorld());
+        final int x = location.getBlockX();
+        final int y = location.getBlockY();
+        final int z = location.getBlockZ();
+        if (add != null && world.equals(this.world) && this.distanceSquared(x, y, z) < distance * distance) {
+            return;
+        }
+
+        final LCEncodedPacket previous = this.remove;
+        if (previous == null || !world.equals(this.world)) {
+            this.remove = new LCEncodedPacket(new LCPacketWaypointRemove(name, world));
+        }
+        this.add = new LCEncodedPacket(new LCPacketWaypointAdd(name, world, color, x, y, z, forced, visible));
+        this.world = world;
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        this.nextSample = tick + (long) intervalTicks * lunarClientAPI.getLoadGovernor().getCadence(LCTrafficCategory.WAYPOINT);
+
+        if (viewers.isEmpty()) {
+            return;
+        }
+
+        // The waypoint is replaced by name, so the old one is removed and the new one added in a single write.
+        final List<LCEncodedPacket> move = previous == null ? Collections.singletonList(add) : Arrays.asList(previous, add);
+        for (int i = 0; i < viewers.size(); i++) {
+            lunarClientAPI.sendEncodedPackets(viewers.get(i), move);
+        }
+    }
+
+    private double distanceSquared(int x, int y, int z) {
+        final double dx = x - this.x;
+        final double dy = y - this.y;
+        final double dz = z - this.z;
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    private int indexOf(Player player) {
+        for (int i = 0; i < viewers.size(); i++) {
+            if (viewers.get(i).getUniqueId().equals(player.getUniqueId())) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Builds a {@link LCTrackedWaypoint}.
+     */
+    public static final class Builder {
+
+        private final String name;
+        private Supplier<Location> target;
+        private int color = 0xFFFFFF;
+        private boolean forced = true;
+        private boolean visible = true;
+        private double distance = 2;
+        private int intervalTicks = 5;
+
+        private Builder(String name) {
+            this.name = name;
+        }
+
+        /**
+         * Follow an entity. While the entity isn't valid (like after it died) the waypoint stays where it was.
+         *
+         * @param entity The entity to follow.
+         * @return This builder.
+         */
+        public Builder target(Entity entity) {
+            Preconditions.checkNotNull(entity, "Waypoint target cannot be null.");
+            return this.target(new EntityTarget(entity));
+        }
+
+        /**
+         * Follow any position. While the supplier returns null the waypoint stays where it was.
+         *
+         * @param target Supplies the current position of the target.
+         * @return This builder.
+         */
+        public Builder target(Supplier<Location> target) {
+            this.target = Preconditions.checkNotNull(target, "Waypoint target cannot be null.");
+            return this;
+        }
+
+        /**
+         * Set the color of the waypoint.
+         *
+         * @param color The RGB color of the waypoint.
+         * @return This builder.
+         */
+        public Builder color(int color) {
+            this.color = color;
+            return this;
+        }
+
+        /**
+         * Set if players can't remove the waypoint themselves, true by default.
+         *
+         * @param forced If the waypoint is forced for gameplay reasons.
+         * @return This builder.
+         */
+        public Builder forced(boolean forced) {
+            this.forced = forced;
+            return this;
+        }
+
+        /**
+         * Set if the waypoint is visible, true by default.
+         *
+         * @param visible Weather the waypoint is visible.
+         * @return This builder.
+         */
+        public Builder visible(boolean visible) {
+            this.visible = visible;
+            return this;
+        }
+
+        /**
+         * Set how far the target has to move before the waypoint follows, 2 blocks by default.
+         *
+         * @param distance The distance in blocks, 0 to follow every block.
+         * @return This builder.
+         */
+        public Builder distance(double distance) {
+            Preconditions.checkArgument(distance >= 0, "Distance cannot be negative.");
+            this.distance = distance;
+            return this;
+        }
+
+        /**
+         * Set the least amount of ticks between two moves of the waypoint, 5 by default.
+         *
+         * @param intervalTicks The interval, at least 1.
+         * @return This builder.
+         */
+        public Builder interval(int intervalTicks) {
+            Preconditions.checkArgument(intervalTicks > 0, "Interval must be at least one tick.");
+            this.intervalTicks = intervalTicks;
+            return this;
+        }
+
+        /**
+         * Build the waypoint. Start tracking it with {@link LCWaypointTracker#start(LCTrackedWaypoint)}.
+         *
+         * @return The waypoint.
+         */
+        public LCTrackedWaypoint build() {
+            Preconditions.checkState(target != null, "Waypoint needs a target.");
+            return new LCTrackedWaypoint(this);
+        }
+    }
+
+    /**
+     * The position of an entity, read on the thread that owns it. On region threaded servers that
+     * isn't the thread sampling the waypoint, so the read is scheduled on the entity and its result
+     * is used by the next sample.
+     */
+    private static final class EntityTarget implements Supplier<Location> {
+
+        private final Entity entity;
+        private final AtomicBoolean reading = new AtomicBoolean();
+        private volatile Location location;
+
+        private EntityTarget(Entity entity) {
+            this.entity = entity;
+        }
+
+        @Override
+        public Location get() {
+            final LunarClientAPI lunarClientAPI = LunarClientAPI.getInstance();
+            final LCScheduler scheduler = lunarClientAPI.getScheduler();
+            if (scheduler.isOwnedByCurrentThread(entity)) {
+                return entity.isValid() ? entity.getLocation() : null;
+            }
+
+            // Once the entity is removed the read never runs, and the waypoint stays where it was.
+            if (reading.compareAndSet(false, true)) {
+                scheduler.run(lunarClientAPI, entity, () -> {
+                    this.location = entity.isValid() ? entity.getLocation() : null;
+                    this.reading.set(false);
+                });
+            }
+            return location;
+        }
+    }
+}
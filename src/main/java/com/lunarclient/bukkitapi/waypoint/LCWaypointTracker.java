@@ -0,0 +1,57 @@
+package com.lunarclient.bukkitapi.waypoint;
+
+import org.bukkit.entity.Player;
+
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Moves every {@link LCTrackedWaypoint} from a single task that runs each tick,
+ * instead of every waypoint being removed and sent again by a timer of its own.
+ * <p>
+ * On region threaded servers the task runs on the global region,
+ * waypoints may be started and stopped from any thread.
+ */
+public final class LCWaypointTracker implements Runnable {
+
+    private final CopyOnWriteArrayList<LCTrackedWaypoint> waypoints = new CopyOnWriteArrayList<>();
+    private long tick;
+
+    /**
+     * Start tracking a waypoint. Show it to players with {@link LCTrackedWaypoint#show(Player)}.
+     *
+     * @param waypoint The waypoint to track.
+     */
+    public void start(LCTrackedWaypoint waypoint) {
+        this.waypoints.addIfAbsent(waypoint);
+    }
+
+    /**
+     * Stop tracking a waypoint and remove it for every viewer.
+     *
+     * @param waypoint The waypoint to stop.
+     */
+    public void stop(LCTrackedWaypoint waypoint) {
+        if (this.waypoints.remove(waypoint)) {
+            waypoint.hideAll();
+        }
+    }
+
+    /**
+     * Forget a player in every waypoint.
+     *
+     * @param player The player that quit.
+     */
+    public void clear(Player player) {
+        for (LCTrackedWaypoint waypoint : waypoints) {
+            waypoint.forget(player);
+        }
+    }
+
+    @Override
+    public void run() {
+        final long tick = ++this.tick;
+        for (LCTrackedWaypoint waypoint : waypoints) {
+            waypoint.tick(tick);
+        }
+    }
+}